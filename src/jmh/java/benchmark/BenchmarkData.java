@@ -0,0 +1,46 @@
+package benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import model.dto.country.Country;
+import model.dto.country.CountryPagination;
+import model.dto.user.GetUserAddressResponse;
+import model.dto.user.GetUserResponse;
+import model.dto.user.UserAddressRequest;
+import model.dto.user.UserRequest;
+import testCase.country.CountriesData;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+// Realistic payloads shaped like the ones the functional tests send and receive
+public class BenchmarkData {
+    public static final String TIMESTAMP = "2025-06-01T10:15:30.123Z";
+
+    public static UserRequest userRequest() {
+        UserRequest userRequest = UserRequest.getDefault();
+        userRequest.setEmail("auto_api_benchmark@abc.com");
+        userRequest.setAddresses(List.of(UserAddressRequest.getDefault(), UserAddressRequest.getDefault()));
+        return userRequest;
+    }
+
+    public static GetUserResponse getUserResponse(UserRequest userRequest) {
+        String userId = UUID.randomUUID().toString();
+        List<GetUserAddressResponse> addresses = userRequest.getAddresses().stream()
+                .map(address -> new GetUserAddressResponse(address.getStreetNumber(), address.getStreet(),
+                        address.getWard(), address.getDistrict(), address.getCity(), address.getState(),
+                        address.getZip(), address.getCountry(), UUID.randomUUID().toString(), TIMESTAMP, TIMESTAMP,
+                        userId))
+                .toList();
+        return new GetUserResponse(userRequest.getFirstName(), userRequest.getLastName(), userRequest.getMiddleName(),
+                userRequest.getBirthday(), userRequest.getEmail(), userRequest.getPhone(), TIMESTAMP, TIMESTAMP,
+                userId, addresses);
+    }
+
+    public static CountryPagination countryPagination(ObjectMapper mapper) throws IOException {
+        List<Country> countries = mapper.readValue(CountriesData.ALL_COUNTRIES_DATA, new TypeReference<>() {
+        });
+        return new CountryPagination(1, countries.size(), countries.size(), countries);
+    }
+}
@@ -0,0 +1,28 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import utils.DateTimeUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeBenchmark {
+    // Non-final state field so the JIT cannot constant-fold the input
+    private String timestamp = BenchmarkData.TIMESTAMP;
+
+    @Benchmark
+    public LocalDateTime parseTimeToCurrentTimeZone() {
+        return DateTimeUtils.parseTimeToCurrentTimeZone(timestamp);
+    }
+
+    @Benchmark
+    public long toEpochMillis() {
+        return DateTimeUtils.toEpochMillis(timestamp);
+    }
+}
@@ -0,0 +1,83 @@
+package benchmark;
+
+import model.dto.user.GetUserResponse;
+import model.dto.user.UserRequest;
+import org.hamcrest.Matcher;
+import org.openjdk.jmh.annotations.*;
+import utils.ComparisonProfiles;
+import utils.IFileUtils;
+import utils.JsonStreamComparator;
+import utils.JsonUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static net.javacrumbs.jsonunit.JsonMatchers.jsonEquals;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCompareBenchmark {
+    private static final String[] IGNORE_FIELDS = ComparisonProfiles.USER_SERVER_FIELDS.toArray(String[]::new);
+
+    private UserRequest userRequest;
+    private GetUserResponse getUserResponse;
+    private Matcher<Object> reusedMatcher;
+    private byte[] userRequestBytes;
+    private byte[] getUserResponseBytes;
+    private JsonStreamComparator ignoringComparator;
+    private byte[] countryQueryBytes;
+    private JsonStreamComparator comparator;
+
+    @Setup
+    public void setUp() throws Exception {
+        userRequest = BenchmarkData.userRequest();
+        getUserResponse = BenchmarkData.getUserResponse(userRequest);
+        reusedMatcher = jsonEquals(userRequest).whenIgnoringPaths(IGNORE_FIELDS);
+        userRequestBytes = JsonUtils.writer().writeValueAsBytes(userRequest);
+        getUserResponseBytes = JsonUtils.writer().writeValueAsBytes(getUserResponse);
+        ignoringComparator = JsonStreamComparator.builder()
+                .ignoredPaths(ComparisonProfiles.USER_SERVER_FIELDS)
+                .build();
+        countryQueryBytes = IFileUtils.readBytesFromResources("graphql/expected/countryQueryExpected.json");
+        comparator = JsonStreamComparator.builder().build();
+    }
+
+    // What CreateUserTest does on every assertion
+    @Benchmark
+    public boolean jsonEqualsIgnoringPaths() {
+        return jsonEquals(userRequest).whenIgnoringPaths(IGNORE_FIELDS).matches(getUserResponse);
+    }
+
+    @Benchmark
+    public boolean reusedJsonEqualsIgnoringPaths() {
+        return reusedMatcher.matches(getUserResponse);
+    }
+
+    // The precompiled profile CreateUserTest asserts with now
+    @Benchmark
+    public boolean userProfile() {
+        return ComparisonProfiles.USER.matches(userRequest).matches(getUserResponse);
+    }
+
+    @Benchmark
+    public boolean streamingIgnoringPaths() {
+        return ignoringComparator.compare(new ByteArrayInputStream(userRequestBytes), getUserResponseBytes).isEmpty();
+    }
+
+    // The CountryQueryTest payload, as a tree comparison of two Strings and as a streaming one of the bytes
+    @Benchmark
+    public boolean jsonEqualsCountryQuery() {
+        String json = new String(countryQueryBytes, StandardCharsets.UTF_8);
+        return jsonEquals(json).matches(new String(countryQueryBytes, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public boolean streamingCountryQuery() {
+        return comparator.compare(new ByteArrayInputStream(countryQueryBytes), countryQueryBytes).isEmpty();
+    }
+}
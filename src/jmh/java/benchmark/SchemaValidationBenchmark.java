@@ -0,0 +1,47 @@
+package benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import utils.JsonSchemaRegistry;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchemaInClasspath;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchemaValidationBenchmark {
+    private static final String SCHEMA = "country-pagination-schema.json";
+
+    private String body;
+    private byte[] bodyBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        body = new ObjectMapper().writeValueAsString(BenchmarkData.countryPagination(new ObjectMapper()));
+        bodyBytes = body.getBytes(StandardCharsets.UTF_8);
+        JsonSchemaRegistry.preload(SCHEMA);
+    }
+
+    // Loads and compiles the schema on every call, as the suites used to
+    @Benchmark
+    public boolean matchesJsonSchemaInClasspathMatcher() {
+        return matchesJsonSchemaInClasspath(JsonSchemaRegistry.SCHEMA_DIR + SCHEMA).matches(body);
+    }
+
+    @Benchmark
+    public boolean registryMatcher() {
+        return JsonSchemaRegistry.matchesSchema(SCHEMA).matches(body);
+    }
+
+    @Benchmark
+    public boolean registryValidateBytes() {
+        return JsonSchemaRegistry.validate(SCHEMA, bodyBytes).isSuccess();
+    }
+}
@@ -0,0 +1,45 @@
+package benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import model.dto.country.CountryPagination;
+import model.dto.user.GetUserResponse;
+import model.dto.user.UserRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private UserRequest userRequest;
+    private byte[] getUserResponseJson;
+    private byte[] countryPaginationJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        userRequest = BenchmarkData.userRequest();
+        getUserResponseJson = mapper.writeValueAsBytes(BenchmarkData.getUserResponse(userRequest));
+        countryPaginationJson = mapper.writeValueAsBytes(BenchmarkData.countryPagination(mapper));
+    }
+
+    @Benchmark
+    public byte[] serializeUserRequest() throws IOException {
+        return mapper.writeValueAsBytes(userRequest);
+    }
+
+    @Benchmark
+    public GetUserResponse deserializeGetUserResponse() throws IOException {
+        return mapper.readValue(getUserResponseJson, GetUserResponse.class);
+    }
+
+    @Benchmark
+    public CountryPagination deserializeCountryPagination() throws IOException {
+        return mapper.readValue(countryPaginationJson, CountryPagination.class);
+    }
+}
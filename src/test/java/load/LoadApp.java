@@ -0,0 +1,102 @@
+package load;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import model.dto.login.LoginRequest;
+import model.dto.login.LoginResponse;
+import model.dto.user.UserRequest;
+import model.dto.user.UserResponse;
+import utils.HttpClientUtils;
+import utils.JsonUtils;
+import utils.MockProfile;
+import utils.MockUtils;
+import utils.TokenProvider;
+import utils.UserCleanupRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static utils.ConstantUtils.*;
+
+// gradle loadTest -Dload.rate=50 -Dload.duration=30 -Dload.stub=true -Dload.scenarios=user,country,card
+// -Dload.mockProfile=realistic degrades the ref-data/build-card mocks the card scenario goes through
+public class LoadApp {
+    public static void main(String[] args) throws Exception {
+        double rate = Double.parseDouble(System.getProperty("load.rate", "20"));
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 10L));
+        int maxInFlight = Integer.getInteger("load.maxInFlight", 64);
+        Set<String> scenarios = Set.of(System.getProperty("load.scenarios", "user,country,card").split(","));
+
+        String mockProfile = System.getProperty("load.mockProfile");
+
+        WireMockServer stub = Boolean.getBoolean("load.stub") ? LoadStubServer.start() : null;
+        // Customers created against the real API are deleted once all scenarios have run
+        UserCleanupRegistry createdUsers = new UserCleanupRegistry();
+        if (stub == null && scenarios.contains("card")) {
+            // The API builds cards through the mock servers, so they have to run in this JVM
+            MockUtils.startAllMockServer();
+        }
+        try {
+            RequestSpecification spec = new RequestSpecBuilder()
+                    .setBaseUri(stub != null ? "http://localhost" : HOST)
+                    .setPort(stub != null ? stub.port() : PORT)
+                    .setConfig(HttpClientUtils.restAssuredConfig())
+                    .build();
+            String token = login(spec, TokenProvider.DEFAULT_CREDENTIALS);
+
+            List<LoadScenario> selected = new ArrayList<>();
+            if (scenarios.contains("user")) {
+                selected.add(LoadScenarios.createUser(spec, () -> token, createdUsers));
+            }
+            if (scenarios.contains("country")) {
+                selected.add(LoadScenarios.getCountriesWithPagination(spec, 4));
+            }
+            if (scenarios.contains("card")) {
+                selected.add(LoadScenarios.createCard(spec, () -> token, createCardOwner(spec, token, createdUsers)));
+            }
+            for (LoadScenario scenario : selected) {
+                if (mockProfile != null) {
+                    scenario = scenario.toBuilder().mockProfile(MockProfile.named(mockProfile)).build();
+                }
+                System.out.println(LoadRunner.run(scenario, rate, duration, maxInFlight));
+            }
+            System.out.println(HttpClientUtils.describePool());
+        } finally {
+            if (stub != null) {
+                stub.stop();
+            } else {
+                createdUsers.cleanUp();
+            }
+            MockUtils.stopAll();
+        }
+    }
+
+    private static String login(RequestSpecification spec, LoginRequest credentials) {
+        Response response = RestAssured.given().spec(spec)
+                .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
+                .body(credentials)
+                .post(LOGIN_API);
+        response.then().statusCode(200);
+        return String.format("Bearer %s", JsonUtils.read(response, LoginResponse.class).getToken());
+    }
+
+    private static String createCardOwner(RequestSpecification spec, String token,
+                                          UserCleanupRegistry createdUsers) {
+        UserRequest userRequest = UserRequest.getDefault();
+        userRequest.setEmail(String.format(EMAIL_TEMPlATE, "load_card_" + System.currentTimeMillis()));
+        Response response = RestAssured.given().spec(spec)
+                .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
+                .header(AUTHORIZATION_HEADER, token)
+                .body(userRequest)
+                .post(CREATE_USER_API);
+        response.then().statusCode(200);
+        String userId = JsonUtils.read(response, UserResponse.class).getId();
+        createdUsers.register(userId);
+        return userId;
+    }
+}
@@ -0,0 +1,37 @@
+package load;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+@Getter
+@AllArgsConstructor
+public class LoadReport {
+    private final String scenario;
+    private final double targetRate;
+    private final long scheduled;
+    private final long succeeded;
+    private final long failed;
+    private final long dropped;
+    private final long elapsedNanos;
+    // Latencies in microseconds, measured from each request's intended start time
+    private final Histogram latencies;
+
+    public double getThroughput() {
+        return (succeeded + failed) / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public double percentileMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Load {scenario: %s, target: %.1f/s, achieved: %.1f/s, scheduled: %d, ok: %d, failed: %d, "
+                        + "dropped: %d, p50: %.2fms, p99: %.2fms, p999: %.2fms, max: %.2fms}",
+                scenario, targetRate, getThroughput(), scheduled, succeeded, failed, dropped,
+                percentileMillis(50), percentileMillis(99), percentileMillis(99.9), latencies.getMaxValue() / 1000.0);
+    }
+}
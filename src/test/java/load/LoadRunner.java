@@ -0,0 +1,78 @@
+package load;
+
+import io.restassured.response.Response;
+import org.HdrHistogram.Recorder;
+import utils.MockUtils;
+import utils.ThreadUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model load generator: requests start on a fixed schedule whether or not earlier ones have finished
+public class LoadRunner {
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private LoadRunner() {
+    }
+
+    public static LoadReport run(LoadScenario scenario, double ratePerSecond, Duration duration, int maxInFlight) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long scheduled = duration.toNanos() / intervalNanos;
+        Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        LongAdder succeeded = new LongAdder();
+        LongAdder failed = new LongAdder();
+        LongAdder dropped = new LongAdder();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        // inFlight bounds the concurrency; virtual threads on Java 21+, the same as ConcurrentRows
+        ExecutorService workers = ThreadUtils.newPerTaskExecutor("load-" + scenario.getName());
+
+        if (scenario.getMockProfile() != null) {
+            MockUtils.useProfile(scenario.getMockProfile());
+        }
+        long start = System.nanoTime();
+        try {
+            for (long i = 0; i < scheduled; i++) {
+                long intendedStart = start + i * intervalNanos;
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (!inFlight.tryAcquire()) {
+                    dropped.increment();
+                    continue;
+                }
+                workers.execute(() -> {
+                    try {
+                        Response response = scenario.getRequest().get();
+                        (response.statusCode() == scenario.getExpectedStatus() ? succeeded : failed).increment();
+                    } catch (Exception e) {
+                        // RestAssured rethrows IOExceptions undeclared, so RuntimeException is not enough
+                        failed.increment();
+                    } finally {
+                        // Measured from the intended start so queueing behind a slow system is not hidden
+                        recorder.recordValue(Math.max(0, (System.nanoTime() - intendedStart) / 1_000));
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+        }
+        try {
+            if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (scenario.getMockProfile() != null) {
+            MockUtils.resetProfiles();
+        }
+        return new LoadReport(scenario.getName(), ratePerSecond, scheduled, succeeded.sum(), failed.sum(),
+                dropped.sum(), System.nanoTime() - start, recorder.getIntervalHistogram());
+    }
+}
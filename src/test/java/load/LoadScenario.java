@@ -0,0 +1,19 @@
+package load;
+
+import io.restassured.response.Response;
+import lombok.Builder;
+import lombok.Getter;
+import utils.MockProfile;
+
+import java.util.function.Supplier;
+
+@Getter
+@Builder(toBuilder = true)
+public class LoadScenario {
+    private final String name;
+    private final Supplier<Response> request;
+    @Builder.Default
+    private final int expectedStatus = 200;
+    // Applied to the in-process mock servers while the scenario runs; null leaves them as they are
+    private final MockProfile mockProfile;
+}
@@ -0,0 +1,70 @@
+package load;
+
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import model.dto.card.CreateCardRequest;
+import model.dto.user.UserAddressRequest;
+import model.dto.user.UserRequest;
+import model.dto.user.UserResponse;
+import utils.JsonUtils;
+import utils.UserCleanupRegistry;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static utils.ConstantUtils.*;
+
+// Scenarios built from the same request builders and endpoints as the functional tests
+public class LoadScenarios {
+    private static final AtomicLong EMAIL_SEQUENCE = new AtomicLong();
+
+    private LoadScenarios() {
+    }
+
+    // Every customer created is registered with createdUsers, the caller flushes it when the run ends
+    public static LoadScenario createUser(RequestSpecification spec, Supplier<String> token,
+                                          UserCleanupRegistry createdUsers) {
+        return LoadScenario.builder()
+                .name("CREATE_USER_API")
+                .request(() -> {
+                    UserRequest userRequest = UserRequest.getDefault();
+                    userRequest.setEmail(String.format(EMAIL_TEMPlATE,
+                            "load_" + System.currentTimeMillis() + "_" + EMAIL_SEQUENCE.incrementAndGet()));
+                    userRequest.setAddresses(List.of(UserAddressRequest.getDefault()));
+                    Response response = RestAssured.given().spec(spec)
+                            .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
+                            .header(AUTHORIZATION_HEADER, token.get())
+                            .body(userRequest)
+                            .post(CREATE_USER_API);
+                    if (response.statusCode() == 200) {
+                        createdUsers.register(JsonUtils.read(response, UserResponse.class).getId());
+                    }
+                    return response;
+                })
+                .build();
+    }
+
+    public static LoadScenario getCountriesWithPagination(RequestSpecification spec, int size) {
+        AtomicLong pages = new AtomicLong();
+        return LoadScenario.builder()
+                .name("GET_COUNTRY_WITH_PAGINATION_API")
+                .request(() -> RestAssured.given().spec(spec)
+                        .queryParam(PAGE, pages.incrementAndGet() % 3 + 1)
+                        .queryParam(SIZE, size)
+                        .get(GET_COUNTRY_WITH_PAGINATION_API))
+                .build();
+    }
+
+    public static LoadScenario createCard(RequestSpecification spec, Supplier<String> token, String userId) {
+        return LoadScenario.builder()
+                .name("CREATE_CARD_API")
+                .request(() -> RestAssured.given().spec(spec)
+                        .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
+                        .header(AUTHORIZATION_HEADER, token.get())
+                        .body(new CreateCardRequest(userId, "SILVER"))
+                        .post(CREATE_CARD_API))
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import model.dto.card.CreateCardResponse;
+import model.dto.country.Country;
+import model.dto.country.CountryPagination;
+import model.dto.login.LoginResponse;
+import model.dto.user.UserResponse;
+import testCase.country.CountriesData;
+import utils.JsonUtils;
+import utils.MockUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static utils.ConstantUtils.*;
+
+// Stands in for the API under test so the load engine itself can be exercised locally
+public class LoadStubServer {
+
+    private LoadStubServer() {
+    }
+
+    public static WireMockServer start() throws JsonProcessingException {
+        WireMockServer server = new WireMockServer(MockUtils.farmOptions(0)
+                .containerThreads(Integer.getInteger("load.stubThreads", 64)));
+        server.start();
+
+        List<Country> countries = JsonUtils.readList(CountriesData.ALL_COUNTRIES_DATA, Country.class);
+        server.stubFor(post(urlPathEqualTo(LOGIN_API))
+                .willReturn(json(new LoginResponse("load-test-token", 120000))));
+        server.stubFor(post(urlPathEqualTo(CREATE_USER_API))
+                .willReturn(json(new UserResponse(UUID.randomUUID().toString(), "Customer created"))));
+        server.stubFor(get(urlPathEqualTo(GET_COUNTRY_WITH_PAGINATION_API))
+                .willReturn(json(new CountryPagination(1, 4, countries.size(), countries.subList(0, 4)))));
+        server.stubFor(post(urlPathEqualTo(CREATE_CARD_API))
+                .willReturn(json(new CreateCardResponse("Doe Jos", "1111 2222 3333 4444", "01-23-2028"))));
+        return server;
+    }
+
+    private static ResponseDefinitionBuilder json(Object body) throws JsonProcessingException {
+        return aResponse().withStatus(200)
+                .withHeader(CONTENT_TYPE_HEADER, RESPONSE_CONTENT_TYPE_HEADER_VALUE)
+                .withHeader(X_POWERED_BY_HEADER, X_POWERED_BY_HEADER_VALUE)
+                .withBody(JsonUtils.writer().writeValueAsString(body));
+    }
+}
@@ -1,43 +1,34 @@
 package testCase;
 
-import io.restassured.RestAssured;
-import io.restassured.response.Response;
-import model.dto.login.LoginRequest;
-import model.dto.login.LoginResponse;
-import org.apache.commons.lang3.StringUtils;
-import org.junit.jupiter.api.BeforeAll;
+import io.restassured.specification.RequestSpecification;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import utils.LatencySloExtension;
+import utils.RequestLogExtension;
+import utils.RequestSpecUtils;
+import utils.RunLifecycleExtension;
+import utils.TokenProvider;
 
-import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static utils.ConstantUtils.*;
 
+@ExtendWith({RunLifecycleExtension.class, RequestLogExtension.class, LatencySloExtension.class})
 public class TestMaster {
-    public static String token;
-    private static int tokenTimeout;
-    private static LocalDateTime retrieveTokenMoment;
+    private static final AtomicLong EMAIL_SEQUENCE = new AtomicLong();
+    public static volatile String token;
     public TestMaster(){}
 
-    @BeforeAll
-    public static void globalSetup() {
-        RestAssured.baseURI = HOST;
-        RestAssured.port = PORT;
-    }
-
     @BeforeEach
     public void globalBeforeEach() {
-        if(StringUtils.isAllBlank(token) || retrieveTokenMoment.plusNanos(tokenTimeout).isAfter(LocalDateTime.now())){
-            LoginRequest loginRequest = new LoginRequest("staff", "1234567890");
+        token = TokenProvider.getToken();
+    }
+
+    public static RequestSpecification given() {
+        return RequestSpecUtils.apiRequest();
+    }
 
-            Response response = RestAssured.given().log().all()
-                    .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
-                    .body(loginRequest)
-                    .post(LOGIN_API);
-            response.then().log().all().statusCode(200);
-            LoginResponse loginResponse = response.body().as(LoginResponse.class);
-            token = String.format("Bearer %s", loginResponse.getToken());
-            tokenTimeout = loginResponse.getTimeout() * 80/100;
-            retrieveTokenMoment = LocalDateTime.now();
-        }
+    public static String uniqueEmail() {
+        return String.format(EMAIL_TEMPlATE, System.currentTimeMillis() + "_" + EMAIL_SEQUENCE.incrementAndGet());
     }
 }
@@ -1,6 +1,5 @@
 package testCase.card;
 
-import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import model.dto.card.CreateCardRequest;
 import model.dto.card.CreateCardResponse;
@@ -10,11 +9,12 @@ import model.dto.user.UserResponse;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import testCase.TestMaster;
 import utils.MockUtils;
+import utils.UserCleanupRegistry;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -22,10 +22,10 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.equalToObject;
 import static testCase.user.CreateUserTest.createUser;
 import static utils.ConstantUtils.*;
-import static utils.ConstantUtils.DELETE_USER_API;
 
+@ResourceLock(MOCK_SERVERS_LOCK)
 public class CreateCardTest extends TestMaster {
-    private static List<String> ids = new ArrayList<>();
+    private static final UserCleanupRegistry createdUsers = new UserCleanupRegistry();
 
     @BeforeAll
     static void setUp() {
@@ -34,15 +34,7 @@ public class CreateCardTest extends TestMaster {
 
     @AfterAll
     static void tearDown() {
-        for (String id : ids) {
-            RestAssured.given().log().all()
-                    .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
-                    .header(AUTHORIZATION_HEADER, token)
-                    .delete(DELETE_USER_API, id)
-                    .then()
-                    .log()
-                    .all();
-        }
+        createdUsers.cleanUp();
     }
 
     @Test
@@ -50,20 +42,21 @@ public class CreateCardTest extends TestMaster {
         UserAddressRequest userAddressRequest = UserAddressRequest.getDefault();
         // Precondition - Create user
         UserRequest userRequest = UserRequest.getDefault();
-        userRequest.setEmail(String.format(EMAIL_TEMPlATE, System.currentTimeMillis()));
+        userRequest.setEmail(uniqueEmail());
         userRequest.setAddresses(List.of(userAddressRequest));
         Response createUserResponse = createUser(userRequest);
-        createUserResponse.then().log().all().statusCode(200);
+        createUserResponse.then().statusCode(200);
         UserResponse createUserObj = createUserResponse.body().as(UserResponse.class);
+        createdUsers.register(createUserObj.getId());
         // Create Card
         CreateCardRequest cardRequest = new CreateCardRequest(createUserObj.getId(), "SILVER");
-        Response createCardResponse = RestAssured.given().log().all()
+        Response createCardResponse = given()
                 .header(AUTHORIZATION_HEADER, token)
                 .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
                 .body(cardRequest)
                 .post(CREATE_CARD_API);
         // Verify status code
-        createCardResponse.then().log().all().statusCode(200);
+        createCardResponse.then().statusCode(200);
         // Verify headers
         createCardResponse.then().header(X_POWERED_BY_HEADER, equalTo(X_POWERED_BY_HEADER_VALUE))
                 .header(CONTENT_TYPE_HEADER, equalTo(RESPONSE_CONTENT_TYPE_HEADER_VALUE));
@@ -1,5 +1,9 @@
 package testCase.country;
 
+import model.dto.country.Country;
+import utils.IndexedData;
+import utils.JsonUtils;
+
 public class CountriesData {
     public static final String ALL_COUNTRIES_DATA = """
             [
@@ -41,4 +45,8 @@ public class CountriesData {
                 }
             ]
             """;
+
+    // Parsed once per run and indexed by Country.code
+    public static final IndexedData<String, Country> ALL_COUNTRIES =
+            IndexedData.of(JsonUtils.readList(ALL_COUNTRIES_DATA, Country.class), Country::getCode);
 }
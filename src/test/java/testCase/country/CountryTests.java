@@ -1,10 +1,5 @@
 package testCase.country;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import io.restassured.RestAssured;
-import io.restassured.common.mapper.TypeRef;
 import io.restassured.response.Response;
 import model.dto.country.Country;
 import model.dto.country.CountryPagination;
@@ -14,116 +9,107 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import testCase.TestMaster;
+import utils.ConcurrentRows;
+import utils.ConcurrentRows.PrefetchedResponse;
+import utils.CountryPageWalker;
+import utils.IndexedData;
+import utils.JsonUtils;
+import utils.LatencyBudget;
 
 import java.util.List;
 import java.util.stream.Stream;
 
-import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchemaInClasspath;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static utils.ConstantUtils.*;
+import static utils.JsonSchemaRegistry.assertMatchesSchema;
 
+@LatencyBudget(endpoint = "GET_COUNTRY_API", percentile = 95, lessThanMillis = 200)
 public class CountryTests extends TestMaster {
 
     @Test
     void verifySchemaOfGetCountriesApi() {
-        RestAssured.given().log().all()
-                .get(GET_COUNTRIES_API)
-                .then()
-                .log().all()
-                .statusCode(200)
-                .assertThat()
-                .body(matchesJsonSchemaInClasspath("json-schema/countries-schema.json"));
+        Response response = given()
+                .get(GET_COUNTRIES_API);
+        response.then().statusCode(200);
+        assertMatchesSchema(response, "countries-schema.json");
     }
 
     @Test
-    void verifyCountriesApiData() throws JsonProcessingException {
-        Response response = RestAssured.given().log().all()
+    void verifyCountriesApiData() {
+        Response response = given()
                 .get(GET_COUNTRIES_API);
         // 1. Verify status code
-        response.then().log().all().statusCode(200);
+        response.then().statusCode(200);
 
         // 2. Verify headers
         response.then().header(X_POWERED_BY_HEADER, equalTo(X_POWERED_BY_HEADER_VALUE))
                 .header(CONTENT_TYPE_HEADER, equalTo(CONTENT_TYPE_HEADER_VALUE));
 
         // 3. Verify body
-        ObjectMapper mapper = new ObjectMapper();
-        List<Country> expected = mapper.readValue(CountriesData.ALL_COUNTRIES_DATA, new TypeReference<List<Country>>() {
-        });
-        List<Country> actual = response.body().as(new TypeRef<List<Country>>() {
-        });
-        assertThat(actual.size(), equalTo(expected.size()));
-        assertThat(actual.containsAll(expected), equalTo(true));
-        assertThat(expected.containsAll(actual), equalTo(true));
+        List<Country> actual = JsonUtils.readList(response, Country.class);
+        IndexedData.Diff<Country> diff = CountriesData.ALL_COUNTRIES.diff(actual);
+        assertThat(actual.size(), equalTo(CountriesData.ALL_COUNTRIES.size()));
+        assertThat(diff.toString(), diff.isEmpty(), equalTo(true));
     }
 
     @Test
     void verifySchemaOfGetCountryApi() {
-        RestAssured.given().log().all()
-                .get(GET_COUNTRIES_API + "/VN")
-                .then()
-                .log().all()
-                .statusCode(200)
-                .assertThat()
-                .body(matchesJsonSchemaInClasspath("json-schema/country-schema.json"));
+        Response response = given()
+                .get(GET_COUNTRIES_API + "/VN");
+        response.then().statusCode(200);
+        assertMatchesSchema(response, "country-schema.json");
     }
 
-    static Stream<Country> countryProvider() throws JsonProcessingException {
-        ObjectMapper mapper = new ObjectMapper();
-        List<Country> inputData = mapper.readValue(CountriesData.ALL_COUNTRIES_DATA, new TypeReference<>() {
-        });
-        return inputData.stream();
+    // Rows are fetched concurrently ahead of the assertions, see ConcurrentRows
+    static Stream<Arguments> countryProvider() {
+        return ConcurrentRows.fanOut(CountriesData.ALL_COUNTRIES.values().stream(),
+                country -> given().get(GET_COUNTRY_API, country.getCode()));
     }
 
     @ParameterizedTest
     @MethodSource("countryProvider")
-    void verifyGetCountry(Country input) throws JsonProcessingException {
+    void verifyGetCountry(Country input, PrefetchedResponse prefetched) {
 
-        Response response = RestAssured.given().log().all()
-                .get(String.format(GET_COUNTRY_API), input.getCode());
+        Response response = prefetched.get();
         // 1. Verify status code
-        response.then().log().all().statusCode(200);
+        response.then().statusCode(200);
 
         // 2. Verify headers
         response.then().header(X_POWERED_BY_HEADER, equalTo(X_POWERED_BY_HEADER_VALUE))
                 .header(CONTENT_TYPE_HEADER, equalTo(CONTENT_TYPE_HEADER_VALUE));
 
         // 3. Verify body
-        Country actual = response.body().as(Country.class);
+        Country actual = JsonUtils.read(response, Country.class);
         assertThat(actual, equalToObject(input));
     }
 
     @Test
     void verifySchemaOfGetCountryApiWithFilter() {
-        RestAssured.given().log().all()
+        Response response = given()
                 .queryParam(GDP_FILTER, 5000)
                 .queryParam(OPERATOR_FILTER, ">")
-                .get(GET_COUNTRY_WITH_FILTER_API)
-                .then()
-                .log().all()
-                .statusCode(200)
-                .assertThat()
-                .body(matchesJsonSchemaInClasspath("json-schema/country-with-filter-schema.json"));
+                .get(GET_COUNTRY_WITH_FILTER_API);
+        response.then().statusCode(200);
+        assertMatchesSchema(response, "country-with-filter-schema.json");
     }
 
     @Test
     void verifyGetCountryApiWithFilterGreaterThan() {
-        Response response = RestAssured.given().log().all()
+        Response response = given()
                 .queryParam(GDP_FILTER, 5000)
                 .queryParam(OPERATOR_FILTER, ">")
                 .get(GET_COUNTRY_WITH_FILTER_API);
 
         // 1. Verify status code
-        response.then().log().all().statusCode(200);
+        response.then().statusCode(200);
 
         // 2. Verify headers
         response.then().header(X_POWERED_BY_HEADER, equalTo(X_POWERED_BY_HEADER_VALUE))
                 .header(CONTENT_TYPE_HEADER, equalTo(CONTENT_TYPE_HEADER_VALUE));
 
         // 3. Verify body
-        List<Country> actual = response.body().as(new TypeRef<>() {
-        });
+        List<Country> actual = JsonUtils.readList(response, Country.class);
 
         for (Country country : actual) {
             assertThat(country.getGdp(), greaterThan(5000f));
@@ -131,33 +117,32 @@ public class CountryTests extends TestMaster {
     }
 
     static Stream<Arguments> getCountryWithFilterProvider() {
-        return Stream.of(
+        return ConcurrentRows.fanOutArguments(Stream.of(
                 Arguments.of(">", 5000, greaterThan(5000f)),
                 Arguments.of(">=", 5000, greaterThanOrEqualTo(5000f)),
                 Arguments.of("<", 5000, lessThan(5000f)),
                 Arguments.of("<=", 5000, lessThanOrEqualTo(5000f)),
                 Arguments.of("==", 5000, equalTo(5000f))
-        );
+        ), row -> given()
+                .queryParam(GDP_FILTER, row[1])
+                .queryParam(OPERATOR_FILTER, row[0])
+                .get(GET_COUNTRY_WITH_FILTER_API));
     }
 
     @ParameterizedTest
     @MethodSource("getCountryWithFilterProvider")
-    void verifyGetCountryApiWithFilter(String operator, int gdp, Matcher expected) {
-        Response response = RestAssured.given().log().all()
-                .queryParam(GDP_FILTER, gdp)
-                .queryParam(OPERATOR_FILTER, operator)
-                .get(GET_COUNTRY_WITH_FILTER_API);
+    void verifyGetCountryApiWithFilter(String operator, int gdp, Matcher expected, PrefetchedResponse prefetched) {
+        Response response = prefetched.get();
 
         // 1. Verify status code
-        response.then().log().all().statusCode(200);
+        response.then().statusCode(200);
 
         // 2. Verify headers
         response.then().header(X_POWERED_BY_HEADER, equalTo(X_POWERED_BY_HEADER_VALUE))
                 .header(CONTENT_TYPE_HEADER, equalTo(CONTENT_TYPE_HEADER_VALUE));
 
         // 3. Verify body
-        List<Country> actual = response.body().as(new TypeRef<>() {
-        });
+        List<Country> actual = JsonUtils.readList(response, Country.class);
 
         for (Country country : actual) {
             assertThat(country.getGdp(), expected);
@@ -166,38 +151,35 @@ public class CountryTests extends TestMaster {
 
     @Test
     void verifySchemaOfGetCountryApiWithPagination() {
-        RestAssured.given().log().all()
+        Response response = given()
                 .queryParam(PAGE, 1)
                 .queryParam(SIZE, 4)
-                .get(GET_COUNTRY_WITH_PAGINATION_API)
-                .then()
-                .log().all()
-                .statusCode(200)
-                .assertThat()
-                .body(matchesJsonSchemaInClasspath("json-schema/country-pagination-schema.json"));
+                .get(GET_COUNTRY_WITH_PAGINATION_API);
+        response.then().statusCode(200);
+        assertMatchesSchema(response, "country-pagination-schema.json");
     }
 
     @Test
-    void verifyCountryApiDataWithPagination() throws JsonProcessingException {
+    void verifyCountryApiDataWithPagination() {
         int testSize = 4;
 
         Response response = getCountryApiWithPagination(testSize, 1);
         // 1. Verify status code
-        response.then().log().all().statusCode(200);
+        response.then().statusCode(200);
 
         // 2. Verify headers
         response.then().header(X_POWERED_BY_HEADER, equalTo(X_POWERED_BY_HEADER_VALUE))
                 .header(CONTENT_TYPE_HEADER, equalTo(CONTENT_TYPE_HEADER_VALUE));
 
         // 3. Verify body
-        CountryPagination actualDataFirstPage = response.body().as(CountryPagination.class);
+        CountryPagination actualDataFirstPage = JsonUtils.read(response, CountryPagination.class);
         verifyPage(actualDataFirstPage, testSize, 1, testSize);
 
         // 4. get second page
         response = getCountryApiWithPagination(testSize, 2);
 
-        response.then().log().all().statusCode(200);
-        CountryPagination actualDataSecondPage = response.body().as(CountryPagination.class);
+        response.then().statusCode(200);
+        CountryPagination actualDataSecondPage = JsonUtils.read(response, CountryPagination.class);
         verifyPage(actualDataSecondPage, testSize, 2, testSize);
 
         // 5. Verify data from first page vs second page
@@ -214,11 +196,23 @@ public class CountryTests extends TestMaster {
         }
 
         response = getCountryApiWithPagination(testSize, lastPage);
-        response.then().log().all().statusCode(200);
-        CountryPagination actualDataLastPage = response.body().as(CountryPagination.class);
+        response.then().statusCode(200);
+        CountryPagination actualDataLastPage = JsonUtils.read(response, CountryPagination.class);
         verifyPage(actualDataLastPage, testSize, lastPage, sizeOfLastPage);
     }
 
+    @Test
+    void verifyCountryApiPaginationIntegrity() {
+        int testSize = 4;
+        try (CountryPageWalker walker = new CountryPageWalker(testSize, 4,
+                page -> JsonUtils.read(getCountryApiWithPagination(testSize, page), CountryPagination.class))) {
+            long records = walker.stream().count();
+            CountryPageWalker.PaginationReport report = walker.getReport();
+            assertThat(report.toString(), report.isComplete(), equalTo(true));
+            assertThat(records, equalTo((long) report.getTotal()));
+        }
+    }
+
     private static void verifyPage(CountryPagination pageData, int expectedSize, int expectedPage, int expectedLength) {
         assertThat(pageData.getPage(), equalTo(expectedPage));
         assertThat(pageData.getSize(), equalTo(expectedSize));
@@ -226,7 +220,7 @@ public class CountryTests extends TestMaster {
     }
 
     private static Response getCountryApiWithPagination(int testSize, int page) {
-        Response response = RestAssured.given().log().all()
+        Response response = given()
                 .queryParam(PAGE, page)
                 .queryParam(SIZE, testSize)
                 .get(GET_COUNTRY_WITH_PAGINATION_API);
@@ -235,14 +229,11 @@ public class CountryTests extends TestMaster {
 
     @Test
     void verifySchemaOfGetCountryApiWithHeaders() {
-        RestAssured.given().log().all()
+        Response response = given()
                 .header(API_KEY_HEADER, API_KEY_HEADER_VALUE)
-                .get(GET_COUNTRY_WITH_HEADER_API)
-                .then()
-                .log().all()
-                .statusCode(200)
-                .assertThat()
-                .body(matchesJsonSchemaInClasspath("json-schema/country-header-schema.json"));
+                .get(GET_COUNTRY_WITH_HEADER_API);
+        response.then().statusCode(200);
+        assertMatchesSchema(response, "country-header-schema.json");
     }
 
 }
@@ -1,51 +1,62 @@
 package testCase.graphql;
 
-import io.restassured.RestAssured;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.response.Response;
-import model.dto.graphql.QueryRequest;
-import org.apache.commons.io.FileUtils;
-import org.junit.jupiter.api.BeforeAll;
+import io.restassured.specification.RequestSpecification;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import utils.GraphQLClient;
+import utils.GraphQLProjection;
+import utils.HttpClientUtils;
 import utils.IFileUtils;
+import utils.JsonStreamComparator;
+import utils.RequestLogExtension;
+import utils.RequestLogFilter;
+import utils.RunLifecycleExtension;
+import utils.TimingFilter;
 
-import java.io.File;
-import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
 
-import static net.javacrumbs.jsonunit.JsonMatchers.jsonEquals;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static utils.ConstantUtils.*;
 
+@ExtendWith({RunLifecycleExtension.class, RequestLogExtension.class})
 public class CountryQueryTest {
-    @BeforeAll
-    static void setUp() {
-        RestAssured.baseURI = "https://countries.trevorblades.com/";
-    }
+    private static final RequestSpecification GRAPHQL_SPEC = new RequestSpecBuilder()
+            .setBaseUri("https://countries.trevorblades.com/")
+            .setConfig(HttpClientUtils.restAssuredConfig())
+            .addFilter(new RequestLogFilter())
+            .addFilter(new TimingFilter())
+            .build();
+    private static final GraphQLClient GRAPHQL = new GraphQLClient(GRAPHQL_SPEC);
+    private static final JsonStreamComparator JSON_COMPARATOR = JsonStreamComparator.builder().build();
+    private static final String EXPECTED_PATH = "graphql/expected/countryQueryExpected.json";
+    // Only what verifyCountryQueryProjected asserts on; the continent's country list, states and subdivisions are
+    // neither requested nor read
+    private static final GraphQLProjection COUNTRY_SUMMARY = GraphQLProjection.of("verifyCountry",
+            "country.name", "country.capital", "country.currency", "country.continent.name",
+            "country.languages.code");
 
     @Test
-    void verifyCountryQuery() throws IOException {
-        String queryFilePath = "graphql/grapql-query/country-query.graphql";
-        String queryString = IFileUtils.readFileFromResources(queryFilePath);
-        QueryRequest queryRequest = new QueryRequest();
-        queryRequest.setQuery(queryString);
-        Map<String, String> variables = new HashMap<>();
-        variables.put("code", "VN");
-        queryRequest.setVariables(variables);
-        Response response = RestAssured.given().log().all()
-                .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
-                .body(queryRequest)
-                .post();
+    void verifyCountryQuery() {
+        Response response = GRAPHQL.execute("verifyCountry", Map.of("code", "VN"));
 
         // status code
-        response.then().log().all().statusCode(200);
+        response.then().statusCode(200);
         // headers
         response.then().header(CONTENT_TYPE_HEADER, equalTo("application/json; charset=utf-8"));
         // body
-        String actual = response.body().asString();
-        String expectedPath = "graphql/expected/countryQueryExpected.json";
-        String expected = IFileUtils.readFileFromResources(expectedPath);
-        assertThat(actual, jsonEquals(expected));
+        JSON_COMPARATOR.assertEquals(IFileUtils.openResource(EXPECTED_PATH), response.asByteArray());
+    }
+
+    @Test
+    void verifyCountryQueryProjected() {
+        Response response = GRAPHQL.execute(COUNTRY_SUMMARY.trimmedOperation(), Map.of("code", "VN"));
+
+        response.then().statusCode(200);
+        JsonNode expected = COUNTRY_SUMMARY.read(IFileUtils.openResource(EXPECTED_PATH));
+        assertThat(COUNTRY_SUMMARY.read(response), JSON_COMPARATOR.matches(expected));
     }
 }
@@ -1,6 +1,5 @@
 package testCase.login;
 
-import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import model.dto.login.LoginError;
 import model.dto.login.LoginRequest;
@@ -10,13 +9,14 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import testCase.TestMaster;
+import utils.JsonUtils;
 
 import java.util.stream.Stream;
 
-import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchemaInClasspath;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static utils.ConstantUtils.*;
+import static utils.JsonSchemaRegistry.matchesSchema;
 
 public class LoginTest extends TestMaster {
 
@@ -25,35 +25,34 @@ public class LoginTest extends TestMaster {
     void verifySchemaOfLoginApi() {
         LoginRequest loginRequest = new LoginRequest("staff", "1234567890");
 
-        RestAssured.given().log().all()
+        given()
                 .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
                 .body(loginRequest)
                 .post(LOGIN_API)
                 .then()
-                .log().all()
                 .statusCode(200)
                 .assertThat()
-                .body(matchesJsonSchemaInClasspath("json-schema/login-schema.json"));
+                .body(matchesSchema("login-schema.json"));
     }
 
     @Test
     void verifyLoginSuccessful() {
         LoginRequest loginRequest = new LoginRequest("staff", "1234567890");
 
-        Response response = RestAssured.given().log().all()
+        Response response = given()
                 .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
                 .body(loginRequest)
                 .post(LOGIN_API);
 
         // 1. Verify status code
-        response.then().log().all().statusCode(200);
+        response.then().statusCode(200);
 
         // 2. Verify header
         response.then().header(X_POWERED_BY_HEADER, equalTo(X_POWERED_BY_HEADER_VALUE))
                 .header(CONTENT_TYPE_HEADER, equalTo(RESPONSE_CONTENT_TYPE_HEADER_VALUE));
 
         // 3. Verify body
-        LoginResponse actual = response.body().as(LoginResponse.class);
+        LoginResponse actual = JsonUtils.read(response, LoginResponse.class);
         assertThat(actual.getToken(), not(emptyOrNullString()));
         assertThat(actual.getTimeout(), equalTo(120000));
     }
@@ -73,13 +72,13 @@ public class LoginTest extends TestMaster {
     @MethodSource("loginProvider")
     void verifyLoginFail(LoginRequest loginRequest) {
 
-        Response response = RestAssured.given().log().all()
+        Response response = given()
                 .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
                 .body(loginRequest)
                 .post(LOGIN_API);
 
         // 1. Verify status code
-        response.then().log().all().statusCode(401);
+        response.then().statusCode(401);
 
         // 2. Verify header
         response.then().header(X_POWERED_BY_HEADER, equalTo(X_POWERED_BY_HEADER_VALUE))
@@ -1,6 +1,5 @@
 package testCase.user;
 
-import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import model.dao.user.AddressDao;
 import model.dao.user.UserDao;
@@ -12,38 +11,32 @@ import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import testCase.TestMaster;
+import utils.ComparisonProfiles;
 import utils.DbUtils;
+import utils.JsonStreamComparator;
+import utils.JsonUtils;
+import utils.LatencySlo;
+import utils.UserCleanupRegistry;
 
-import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
-import static net.javacrumbs.jsonunit.JsonMatchers.jsonEquals;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static utils.ConstantUtils.*;
-import static utils.DateTimeUtils.parseTimeToCurrentTimeZone;
-import static utils.DateTimeUtils.verifyDateTime;
+import static utils.DateTimeUtils.verifyTimestamps;
 import static utils.DbUtils.getUserFromDb;
 
 public class CreateUserTest extends TestMaster {
-    private static final String[] IGNORE_FIELDS = {"id", "createdAt", "updatedAt", "addresses[*].id",
-            "addresses[*].customerId", "addresses[*].createdAt", "addresses[*].updatedAt"};
-    private static List<String> ids = new ArrayList<>();
+    private static final JsonStreamComparator USER_PROFILE = ComparisonProfiles.forType(GetUserResponse.class);
+    private static final JsonStreamComparator USER_DB_PROFILE = ComparisonProfiles.forType(UserDao.class);
+    private static final UserCleanupRegistry createdUsers = new UserCleanupRegistry();
 
     @AfterAll
     static void tearDown(){
-        for(String id : ids){
-            RestAssured.given().log().all()
-                    .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
-                    .header(AUTHORIZATION_HEADER, token)
-                    .delete(DELETE_USER_API, id)
-                    .then()
-                    .log()
-                    .all();
-        }
+        createdUsers.cleanUp();
     }
 
     @Test
@@ -53,15 +46,16 @@ public class CreateUserTest extends TestMaster {
 
         // Create user
         UserRequest userRequest = UserRequest.getDefault();
-        userRequest.setEmail(String.format(EMAIL_TEMPlATE, System.currentTimeMillis()));
+        userRequest.setEmail(uniqueEmail());
         userRequest.setAddresses(List.of(userAddressRequest));
 
-        LocalDateTime timeBeforeCreate = LocalDateTime.now();
+        long timeBeforeCreate = System.currentTimeMillis();
 
         Response createUserResponse = createUser(userRequest);
 
-        // 1. Verify status code
-        createUserResponse.then().log().all().statusCode(200);
+        // 1. Verify status code and latency budget
+        createUserResponse.then().statusCode(200)
+                .time(LatencySlo.p95("CREATE_USER_API").lessThan(1, TimeUnit.SECONDS));
 
         // 2. Verify headers and schema
         createUserResponse.then().header(X_POWERED_BY_HEADER, equalTo(X_POWERED_BY_HEADER_VALUE))
@@ -73,38 +67,26 @@ public class CreateUserTest extends TestMaster {
         assertThat(userResponse.getMessage(), equalTo("Customer created"));
 
         // 4. Double check that user existing in the system or not by getUserApi
-        Response getUserResponse = RestAssured.given().log().all()
+        Response getUserResponse = given()
                 .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
                 .header(AUTHORIZATION_HEADER, token)
                 .get(GET_USER_API, userResponse.getId());
-        ids.add(userResponse.getId());
+        createdUsers.register(userResponse.getId());
 
-        LocalDateTime timeAfterCreate = LocalDateTime.now();
+        long timeAfterCreate = System.currentTimeMillis();
         // 5. Verify status
-        getUserResponse.then().log().all().statusCode(200);
+        getUserResponse.then().statusCode(200);
 
         // 6. Verify get user response again request
-        GetUserResponse actualGetUserResponse = getUserResponse.body().as(GetUserResponse.class);
+        GetUserResponse actualGetUserResponse = JsonUtils.read(getUserResponse, GetUserResponse.class);
         assertThat(actualGetUserResponse.getId(), equalTo(userResponse.getId()));
-        assertThat(actualGetUserResponse, jsonEquals(userRequest).whenIgnoringPaths(
-                IGNORE_FIELDS));
-
-        LocalDateTime userCreateAtDate = parseTimeToCurrentTimeZone(actualGetUserResponse.getCreatedAt());
-        verifyDateTime(timeBeforeCreate, timeAfterCreate, userCreateAtDate);
+        assertThat(actualGetUserResponse, USER_PROFILE.matches(userRequest));
 
-        LocalDateTime userUpdateAtDate = parseTimeToCurrentTimeZone(actualGetUserResponse.getUpdatedAt());
-        verifyDateTime(timeBeforeCreate, timeAfterCreate, userUpdateAtDate);
+        verifyTimestamps(timeBeforeCreate, timeAfterCreate, actualGetUserResponse);
 
         for (GetUserAddressResponse addressResponse : actualGetUserResponse.getAddresses()) {
             assertThat(addressResponse.getCustomerId(), equalTo(userResponse.getId()));
             assertThat(addressResponse.getId(), not(emptyOrNullString()));
-
-            LocalDateTime userAddressCreateAtDate = parseTimeToCurrentTimeZone(actualGetUserResponse.getCreatedAt());
-            verifyDateTime(timeBeforeCreate, timeAfterCreate, userCreateAtDate);
-
-            LocalDateTime userAddressUpdateAtDate = parseTimeToCurrentTimeZone(actualGetUserResponse.getUpdatedAt());
-            verifyDateTime(timeBeforeCreate, timeAfterCreate, userUpdateAtDate);
-
         }
     }
 
@@ -118,15 +100,15 @@ public class CreateUserTest extends TestMaster {
 
         // Create user
         UserRequest userRequest = UserRequest.getDefault();
-        userRequest.setEmail(String.format(EMAIL_TEMPlATE, System.currentTimeMillis()));
+        userRequest.setEmail(uniqueEmail());
         userRequest.setAddresses(List.of(userAddressRequest1, userAddressRequest2));
 
-        LocalDateTime timeBeforeCreate = LocalDateTime.now();
+        long timeBeforeCreate = System.currentTimeMillis();
 
         Response createUserResponse = createUser(userRequest);
 
         // 1. Verify status code
-        createUserResponse.then().log().all().statusCode(200);
+        createUserResponse.then().statusCode(200);
 
         // 2. Verify headers and schema
         createUserResponse.then().header(X_POWERED_BY_HEADER, equalTo(X_POWERED_BY_HEADER_VALUE))
@@ -138,38 +120,27 @@ public class CreateUserTest extends TestMaster {
         assertThat(userResponse.getMessage(), equalTo("Customer created"));
 
         // 4. Double check that user existing in the system or not by getUserApi
-        Response getUserResponse = RestAssured.given().log().all()
+        Response getUserResponse = given()
                 .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
                 .header(AUTHORIZATION_HEADER, token)
                 .get(GET_USER_API, userResponse.getId());
 
-        ids.add(userResponse.getId());
+        createdUsers.register(userResponse.getId());
 
-        LocalDateTime timeAfterCreate = LocalDateTime.now();
+        long timeAfterCreate = System.currentTimeMillis();
         // 5. Verify status
-        getUserResponse.then().log().all().statusCode(200);
+        getUserResponse.then().statusCode(200);
 
         // 6. Verify get user response again request
-        GetUserResponse actualGetUserResponse = getUserResponse.body().as(GetUserResponse.class);
+        GetUserResponse actualGetUserResponse = JsonUtils.read(getUserResponse, GetUserResponse.class);
         assertThat(actualGetUserResponse.getId(), equalTo(userResponse.getId()));
-        assertThat(actualGetUserResponse, jsonEquals(userRequest).whenIgnoringPaths(
-                IGNORE_FIELDS));
-
-        LocalDateTime userCreateAtDate = parseTimeToCurrentTimeZone(actualGetUserResponse.getCreatedAt());
-        verifyDateTime(timeBeforeCreate, timeAfterCreate, userCreateAtDate);
+        assertThat(actualGetUserResponse, USER_PROFILE.matches(userRequest));
 
-        LocalDateTime userUpdateAtDate = parseTimeToCurrentTimeZone(actualGetUserResponse.getUpdatedAt());
-        verifyDateTime(timeBeforeCreate, timeAfterCreate, userUpdateAtDate);
+        verifyTimestamps(timeBeforeCreate, timeAfterCreate, actualGetUserResponse);
 
         for (GetUserAddressResponse addressResponse : actualGetUserResponse.getAddresses()) {
             assertThat(addressResponse.getCustomerId(), equalTo(userResponse.getId()));
             assertThat(addressResponse.getId(), not(emptyOrNullString()));
-
-            LocalDateTime userAddressCreateAtDate = parseTimeToCurrentTimeZone(actualGetUserResponse.getCreatedAt());
-            verifyDateTime(timeBeforeCreate, timeAfterCreate, userCreateAtDate);
-
-            LocalDateTime userAddressUpdateAtDate = parseTimeToCurrentTimeZone(actualGetUserResponse.getUpdatedAt());
-            verifyDateTime(timeBeforeCreate, timeAfterCreate, userUpdateAtDate);
         }
     }
 
@@ -180,15 +151,15 @@ public class CreateUserTest extends TestMaster {
 
         // Create user
         UserRequest userRequest = UserRequest.getDefault();
-        userRequest.setEmail(String.format(EMAIL_TEMPlATE, System.currentTimeMillis()));
+        userRequest.setEmail(uniqueEmail());
         userRequest.setAddresses(List.of(userAddressRequest));
 
-        LocalDateTime timeBeforeCreate = LocalDateTime.now();
+        long timeBeforeCreate = System.currentTimeMillis();
 
         Response createUserResponse = createUser(userRequest);
 
         // 1. Verify status code
-        createUserResponse.then().log().all().statusCode(200);
+        createUserResponse.then().statusCode(200);
 
         // 2. Verify headers and schema
         createUserResponse.then().header(X_POWERED_BY_HEADER, equalTo(X_POWERED_BY_HEADER_VALUE))
@@ -200,36 +171,32 @@ public class CreateUserTest extends TestMaster {
         assertThat(userResponse.getMessage(), equalTo("Customer created"));
 
         // 4. Double check that user existing in the system or not by getUserApi
-        Response getUserResponse = RestAssured.given().log().all()
+        Response getUserResponse = given()
                 .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
                 .header(AUTHORIZATION_HEADER, token)
                 .get(GET_USER_API, userResponse.getId());
-        ids.add(userResponse.getId());
+        createdUsers.register(userResponse.getId());
 
-        LocalDateTime timeAfterCreate = LocalDateTime.now();
+        long timeAfterCreate = System.currentTimeMillis();
         // 5. Verify status
-        getUserResponse.then().log().all().statusCode(200);
+        getUserResponse.then().statusCode(200);
 
         // 6. Verify user has been saved successful in DB
 
         UserDao actualUserDb = getUserFromDb(userResponse.getId());
 
-        assertThat(actualUserDb, jsonEquals(userRequest).whenIgnoringPaths(
-                IGNORE_FIELDS));
+        assertThat(actualUserDb, USER_DB_PROFILE.matches(userRequest));
 
-        verifyDateTime(timeBeforeCreate, timeAfterCreate, actualUserDb.getCreatedAt());
-        verifyDateTime(timeBeforeCreate, timeAfterCreate, actualUserDb.getUpdatedAt());
+        verifyTimestamps(timeBeforeCreate, timeAfterCreate, actualUserDb);
 
         for (AddressDao addressResponse : actualUserDb.getAddresses()) {
             assertThat(addressResponse.getCustomerId().toString(), equalTo(userResponse.getId()));
             assertThat(addressResponse.getId().toString(), not(emptyOrNullString()));
-            verifyDateTime(timeBeforeCreate, timeAfterCreate, addressResponse.getCreatedAt());
-            verifyDateTime(timeBeforeCreate, timeAfterCreate, addressResponse.getUpdatedAt());
         }
     }
 
     public static Response createUser(UserRequest userRequest) {
-        return RestAssured.given().log().all()
+        return given()
                 .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
                 .header(AUTHORIZATION_HEADER, token)
                 .body(userRequest)
@@ -0,0 +1,58 @@
+package utils;
+
+import model.dao.user.UserDao;
+import model.dto.user.GetUserResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.emptyOrNullString;
+import static org.hamcrest.Matchers.not;
+
+// One precompiled comparator per DTO type, declared here once and shared by every test and thread:
+//   assertThat(actualGetUserResponse, ComparisonProfiles.forType(GetUserResponse.class).matches(userRequest));
+public class ComparisonProfiles {
+    // Generated by the server, so the profile only checks they are present
+    public static final List<String> USER_GENERATED_IDS = List.of("id", "addresses[*].id",
+            "addresses[*].customerId");
+    // Filled in by the server; timestamps are checked separately by DateTimeUtils.verifyTimestamps
+    public static final List<String> USER_TIMESTAMPS = List.of("createdAt", "updatedAt", "addresses[*].createdAt",
+            "addresses[*].updatedAt");
+    // Everything a user request does not determine, i.e. the paths jsonEquals(...).whenIgnoringPaths(...) skips
+    public static final List<String> USER_SERVER_FIELDS = Stream.concat(USER_GENERATED_IDS.stream(),
+            USER_TIMESTAMPS.stream()).toList();
+
+    public static final JsonStreamComparator USER = userProfile();
+
+    private static final Map<Class<?>, JsonStreamComparator> PROFILES = new ConcurrentHashMap<>();
+
+    static {
+        register(GetUserResponse.class, USER);
+        register(UserDao.class, USER);
+    }
+
+    private ComparisonProfiles() {
+    }
+
+    private static JsonStreamComparator userProfile() {
+        JsonStreamComparator.JsonStreamComparatorBuilder builder = JsonStreamComparator.builder()
+                .ignoredPaths(USER_TIMESTAMPS);
+        USER_GENERATED_IDS.forEach(path -> builder.fieldMatcher(path, not(emptyOrNullString())));
+        return builder.build();
+    }
+
+    public static void register(Class<?> type, JsonStreamComparator profile) {
+        PROFILES.put(type, profile);
+    }
+
+    public static JsonStreamComparator forType(Class<?> type) {
+        JsonStreamComparator profile = PROFILES.get(type);
+        if (profile == null) {
+            throw new IllegalArgumentException(String.format("No comparison profile declared for %s",
+                    type.getSimpleName()));
+        }
+        return profile;
+    }
+}
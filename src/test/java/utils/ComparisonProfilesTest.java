@@ -0,0 +1,148 @@
+package utils;
+
+import model.dao.user.UserDao;
+import model.dto.user.GetUserAddressResponse;
+import model.dto.user.GetUserResponse;
+import model.dto.user.UserAddressRequest;
+import model.dto.user.UserRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static net.javacrumbs.jsonunit.JsonMatchers.jsonEquals;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ComparisonProfilesTest {
+    private static final String TIMESTAMP = "2025-06-01T10:15:30.123Z";
+
+    @Test
+    void verifyUserProfileMatchesLikeJsonEquals() {
+        UserRequest userRequest = userRequest();
+        GetUserResponse response = response(userRequest);
+
+        assertThat(response, jsonEquals(userRequest).whenIgnoringPaths(
+                ComparisonProfiles.USER_SERVER_FIELDS.toArray(String[]::new)));
+        assertThat(response, ComparisonProfiles.USER.matches(userRequest));
+    }
+
+    @Test
+    void verifyUserProfileIgnoresTimestamps() {
+        UserRequest userRequest = userRequest();
+        GetUserResponse response = response(userRequest);
+        response.setUpdatedAt("2030-01-01T00:00:00Z");
+        response.getAddresses().get(0).setCreatedAt(null);
+
+        assertThat(ComparisonProfiles.USER.compare(userRequest, response), empty());
+    }
+
+    @Test
+    void verifyUserProfileReportsChangedFields() {
+        UserRequest userRequest = userRequest();
+        GetUserResponse response = response(userRequest);
+        response.setEmail("other@abc.com");
+        response.getAddresses().get(0).setCity("Ha Noi");
+
+        assertThat(paths(ComparisonProfiles.USER.compare(userRequest, response)),
+                contains("email", "addresses[0].city"));
+    }
+
+    @Test
+    void verifyUserProfileRequiresGeneratedIds() {
+        UserRequest userRequest = userRequest();
+        GetUserResponse response = response(userRequest);
+        response.setId("");
+        response.getAddresses().get(0).setCustomerId(null);
+
+        List<JsonStreamComparator.Difference> differences = ComparisonProfiles.USER.compare(userRequest, response);
+
+        assertThat(paths(differences), containsInAnyOrder("id", "addresses[0].customerId"));
+        assertThat(kinds(differences), contains(JsonStreamComparator.Kind.MATCHER, JsonStreamComparator.Kind.MATCHER));
+    }
+
+    // Neither the request nor the response has the id, so the comparison never reaches it on its own
+    @Test
+    void verifyMatcherOnFieldMissingFromBothSides() {
+        String expected = "{\"firstName\":\"Jos\",\"addresses\":[{\"city\":\"HCM\"}]}";
+        String actual = "{\"firstName\":\"Jos\","
+                + "\"addresses\":[{\"city\":\"HCM\",\"id\":\"a1\",\"customerId\":\"u1\"}]}";
+
+        List<JsonStreamComparator.Difference> differences = ComparisonProfiles.USER.compare(
+                new ByteArrayInputStream(expected.getBytes(StandardCharsets.UTF_8)),
+                actual.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(paths(differences), contains("id"));
+        assertThat(kinds(differences), contains(JsonStreamComparator.Kind.MATCHER));
+    }
+
+    @Test
+    void verifyToleranceAppliesToItsPathOnly() {
+        JsonStreamComparator comparator = JsonStreamComparator.builder()
+                .tolerance("points[*].lat", new BigDecimal("0.001"))
+                .build();
+        String expected = "{\"points\":[{\"lat\":10.5,\"lng\":106.7}]}";
+
+        assertThat(compare(comparator, expected, "{\"points\":[{\"lat\":10.5004,\"lng\":106.7}]}"), empty());
+        assertThat(paths(compare(comparator, expected, "{\"points\":[{\"lat\":10.502,\"lng\":106.7}]}")),
+                contains("points[0].lat"));
+        assertThat(paths(compare(comparator, expected, "{\"points\":[{\"lat\":10.5,\"lng\":106.7004}]}")),
+                contains("points[0].lng"));
+    }
+
+    @Test
+    void verifyProfilesAreRegisteredPerType() {
+        assertThat(ComparisonProfiles.forType(GetUserResponse.class), sameInstance(ComparisonProfiles.USER));
+        assertThat(ComparisonProfiles.forType(UserDao.class), sameInstance(ComparisonProfiles.USER));
+        assertThrows(IllegalArgumentException.class, () -> ComparisonProfiles.forType(UserRequest.class));
+    }
+
+    @Test
+    void verifyUserProfileIsDerivedFromServerFields() {
+        assertThat(ComparisonProfiles.USER.getIgnoredPaths(), equalTo(ComparisonProfiles.USER_TIMESTAMPS));
+        assertThat(ComparisonProfiles.USER.getFieldMatchers().keySet(),
+                equalTo(Set.copyOf(ComparisonProfiles.USER_GENERATED_IDS)));
+    }
+
+    private static UserRequest userRequest() {
+        UserRequest userRequest = UserRequest.getDefault();
+        userRequest.setAddresses(List.of(UserAddressRequest.getDefault(), UserAddressRequest.getDefault()));
+        return userRequest;
+    }
+
+    private static GetUserResponse response(UserRequest userRequest) {
+        String userId = UUID.randomUUID().toString();
+        List<GetUserAddressResponse> addresses = userRequest.getAddresses().stream()
+                .map(address -> new GetUserAddressResponse(address.getStreetNumber(), address.getStreet(),
+                        address.getWard(), address.getDistrict(), address.getCity(), address.getState(),
+                        address.getZip(), address.getCountry(), UUID.randomUUID().toString(), TIMESTAMP, TIMESTAMP,
+                        userId))
+                .toList();
+        return new GetUserResponse(userRequest.getFirstName(), userRequest.getLastName(), userRequest.getMiddleName(),
+                userRequest.getBirthday(), userRequest.getEmail(), userRequest.getPhone(), TIMESTAMP, TIMESTAMP,
+                userId, addresses);
+    }
+
+    private static List<JsonStreamComparator.Difference> compare(JsonStreamComparator comparator, String expected,
+                                                                 String actual) {
+        return comparator.compare(new ByteArrayInputStream(expected.getBytes(StandardCharsets.UTF_8)),
+                actual.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> paths(List<JsonStreamComparator.Difference> differences) {
+        return differences.stream().map(JsonStreamComparator.Difference::path).toList();
+    }
+
+    private static List<JsonStreamComparator.Kind> kinds(List<JsonStreamComparator.Difference> differences) {
+        return differences.stream().map(JsonStreamComparator.Difference::kind).toList();
+    }
+}
@@ -0,0 +1,169 @@
+package utils;
+
+import io.restassured.response.Response;
+import org.junit.jupiter.params.provider.Arguments;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Data-driven mode for @ParameterizedTest: the @MethodSource issues the rows' requests concurrently, at most
+// MAX_IN_FLIGHT of them at a time, and every invocation receives its response as a PrefetchedResponse.
+// Assertions and reporting stay per row:
+//   static Stream<Arguments> rows() { return ConcurrentRows.fanOut(data(), row -> given().get(...)); }
+//   @ParameterizedTest @MethodSource("rows") void verify(Row row, PrefetchedResponse prefetched) { prefetched.get()... }
+public class ConcurrentRows {
+    public static final int MAX_IN_FLIGHT = Integer.getInteger("rows.maxInFlight", 16);
+
+    // The semaphore of each fan-out bounds the concurrency, the executor only has to keep up with it
+    private static final ExecutorService EXECUTOR = ThreadUtils.newPerTaskExecutor("concurrent-rows");
+
+    private ConcurrentRows() {
+    }
+
+    public static <T> Stream<Arguments> fanOut(Stream<T> rows, Function<T, Response> request) {
+        return fanOut(rows, request, MAX_IN_FLIGHT);
+    }
+
+    public static <T> Stream<Arguments> fanOut(Stream<T> rows, Function<T, Response> request, int maxInFlight) {
+        Semaphore inFlight = inFlight(maxInFlight);
+        return window(rows.iterator(), maxInFlight,
+                row -> Arguments.of(row, submit(() -> request.apply(row), inFlight)));
+    }
+
+    // For rows that already are Arguments; the request sees their values and the response is appended
+    public static Stream<Arguments> fanOutArguments(Stream<Arguments> rows, Function<Object[], Response> request) {
+        return fanOutArguments(rows, request, MAX_IN_FLIGHT);
+    }
+
+    public static Stream<Arguments> fanOutArguments(Stream<Arguments> rows, Function<Object[], Response> request,
+                                                    int maxInFlight) {
+        Semaphore inFlight = inFlight(maxInFlight);
+        return window(rows.iterator(), maxInFlight, row -> {
+            Object[] values = row.get();
+            Object[] withResponse = Arrays.copyOf(values, values.length + 1);
+            withResponse[values.length] = submit(() -> request.apply(values), inFlight);
+            return Arguments.of(withResponse);
+        });
+    }
+
+    private static Semaphore inFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        return new Semaphore(maxInFlight);
+    }
+
+    // Keeps the responses held for invocations JUnit has not reached yet to maxInFlight. It does not bound the
+    // requests themselves: with parallel execution JUnit drains the stream up front, so submit() does that.
+    private static <T> Stream<Arguments> window(Iterator<T> rows, int maxInFlight, Function<T, Arguments> start) {
+        Iterator<Arguments> windowed = new Iterator<>() {
+            private final Deque<Arguments> started = new ArrayDeque<>();
+
+            @Override
+            public boolean hasNext() {
+                fill();
+                return !started.isEmpty();
+            }
+
+            @Override
+            public Arguments next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Arguments next = started.removeFirst();
+                fill();
+                return next;
+            }
+
+            private void fill() {
+                while (started.size() < maxInFlight && rows.hasNext()) {
+                    started.addLast(start.apply(rows.next()));
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(windowed, Spliterator.ORDERED), false);
+    }
+
+    // Blocks the thread pulling the rows while maxInFlight requests are running; each permit is returned when its
+    // request finishes, whether or not the test has read the response yet
+    private static PrefetchedResponse submit(Supplier<Response> request, Semaphore inFlight) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a request slot", e);
+        }
+        try {
+            return new PrefetchedResponse(CompletableFuture.supplyAsync(() -> {
+                // Timings and the request log are collected here and handed over when the test reads the response
+                LatencySlo.Scope recorded = new LatencySlo.Scope("prefetch");
+                LatencySlo.enter(recorded);
+                RequestLogFilter.clear();
+                try {
+                    return new Outcome(request.get(), null, recorded, RequestLogFilter.drain());
+                } catch (Throwable e) {
+                    return new Outcome(null, e, recorded, RequestLogFilter.drain());
+                } finally {
+                    LatencySlo.exit();
+                    inFlight.release();
+                }
+            }, EXECUTOR));
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private record Outcome(Response response, Throwable error, LatencySlo.Scope recorded,
+                           List<RequestLogFilter.Exchange> exchanges) {
+    }
+
+    public static class PrefetchedResponse {
+        private final CompletableFuture<Outcome> outcome;
+
+        private PrefetchedResponse(CompletableFuture<Outcome> outcome) {
+            this.outcome = outcome;
+        }
+
+        // Waits for the row's request and rethrows its failure, so it fails this row only
+        public Response get() {
+            Outcome result;
+            try {
+                result = outcome.join();
+            } catch (CompletionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+            RequestLogFilter.replay(result.exchanges());
+            LatencySlo.absorb(result.recorded());
+            if (result.error() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (result.error() instanceof Error error) {
+                throw error;
+            }
+            if (result.error() != null) {
+                throw new IllegalStateException(result.error());
+            }
+            return result.response();
+        }
+
+        @Override
+        public String toString() {
+            return "prefetched";
+        }
+    }
+}
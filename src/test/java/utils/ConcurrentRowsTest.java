@@ -0,0 +1,40 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.provider.Arguments;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class ConcurrentRowsTest {
+
+    // With parallel execution JUnit reads every row before running the first one
+    @Test
+    void verifyInFlightLimitHoldsWhenRowsAreDrainedUpFront() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Arguments> rows = ConcurrentRows.fanOut(IntStream.range(0, 40).boxed(), row -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return null;
+        }, 4).toList();
+
+        for (Arguments row : rows) {
+            assertThat(((ConcurrentRows.PrefetchedResponse) row.get()[1]).get(), nullValue());
+        }
+        assertThat(rows.size(), equalTo(40));
+        assertThat(peak.get(), lessThanOrEqualTo(4));
+    }
+}
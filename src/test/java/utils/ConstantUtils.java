@@ -27,4 +27,5 @@ public class ConstantUtils {
     public static final String SIZE = "size";
     public static final String AUTHORIZATION_HEADER = "Authorization";
     public static final String EMAIL_TEMPlATE = "auto_api_%s@abc.com";
+    public static final String MOCK_SERVERS_LOCK = "mock-servers";
 }
@@ -0,0 +1,178 @@
+package utils;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import model.dto.country.Country;
+import model.dto.country.CountryPagination;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Walks every page of the v4 countries endpoint. At most `prefetch` pages are in flight or buffered,
+// so a slow consumer holds back fetching instead of piling up pages in memory.
+public class CountryPageWalker implements AutoCloseable {
+    private static final int MAX_REPORTED_DUPLICATES = 20;
+
+    private final int pageSize;
+    private final int prefetch;
+    private final IntFunction<CountryPagination> fetcher;
+    private final ExecutorService executor;
+    @Getter
+    private final PaginationReport report = new PaginationReport();
+
+    public CountryPageWalker(int pageSize, int prefetch, IntFunction<CountryPagination> fetcher) {
+        this.pageSize = pageSize;
+        this.prefetch = prefetch;
+        this.fetcher = fetcher;
+        this.executor = Executors.newFixedThreadPool(prefetch, runnable -> {
+            Thread thread = new Thread(runnable, "country-page-walker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Stream<Country> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new PageIterator(),
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                // A page without data is already reported as malformed
+                .flatMap(page -> page.getData() == null ? Stream.<Country>empty() : page.getData().stream())
+                .peek(report::record)
+                .onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private class PageIterator implements Iterator<CountryPagination> {
+        private final Deque<CompletableFuture<CountryPagination>> window = new ArrayDeque<>();
+        private int nextPageToFetch = 1;
+        private int lastPage = -1;
+
+        @Override
+        public boolean hasNext() {
+            return lastPage == -1 || !window.isEmpty();
+        }
+
+        @Override
+        public CountryPagination next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            CountryPagination page;
+            if (lastPage == -1) {
+                // The first page tells us how many pages there are
+                page = fetch(nextPageToFetch++);
+                report.total = page.getTotal();
+                lastPage = Math.max(1, (page.getTotal() + pageSize - 1) / pageSize);
+            } else {
+                page = window.removeFirst().join();
+            }
+            fill();
+            return page;
+        }
+
+        private void fill() {
+            while (window.size() < prefetch && nextPageToFetch <= lastPage) {
+                int pageNumber = nextPageToFetch++;
+                window.addLast(CompletableFuture.supplyAsync(() -> fetch(pageNumber), executor));
+            }
+        }
+
+        private CountryPagination fetch(int pageNumber) {
+            CountryPagination page = fetcher.apply(pageNumber);
+            if (page.getPage() != pageNumber || page.getSize() != pageSize || page.getData() == null
+                    || page.getData().size() > pageSize) {
+                report.recordMalformedPage(pageNumber);
+            }
+            report.pages.incrementAndGet();
+            return page;
+        }
+    }
+
+    // Duplicates are tracked with a fixed-size Bloom filter, so memory does not grow with the collection.
+    // A hit is only a suspect, which is why duplicates are reported as "possible".
+    @Getter
+    public static class PaginationReport {
+        private static final int BLOOM_BITS = 1 << 23;
+        private static final int BLOOM_HASHES = 4;
+
+        @Getter(AccessLevel.NONE)
+        private final BitSet seen = new BitSet(BLOOM_BITS);
+        private final List<String> possibleDuplicates = new ArrayList<>();
+        private final List<Integer> malformedPages = new ArrayList<>();
+        @Getter(AccessLevel.NONE)
+        private final AtomicInteger pages = new AtomicInteger();
+        private volatile int total;
+        private long records;
+        private long duplicateCount;
+
+        public int getPages() {
+            return pages.get();
+        }
+
+        public long getMissing() {
+            return Math.max(0, total - (records - duplicateCount));
+        }
+
+        public boolean isComplete() {
+            return duplicateCount == 0 && records == total && malformedPages.isEmpty();
+        }
+
+        private synchronized void recordMalformedPage(int pageNumber) {
+            malformedPages.add(pageNumber);
+        }
+
+        private void record(Country country) {
+            records++;
+            String key = String.valueOf(country.getCode());
+            // Two independent hashes, so keys that collide on String.hashCode() do not collide on every probe
+            int hash = key.hashCode();
+            int secondHash = fnv1a(key) | 1;
+            boolean present = true;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                int bit = Math.floorMod(hash + i * secondHash, BLOOM_BITS);
+                if (!seen.get(bit)) {
+                    present = false;
+                    seen.set(bit);
+                }
+            }
+            if (present) {
+                duplicateCount++;
+                if (possibleDuplicates.size() < MAX_REPORTED_DUPLICATES) {
+                    possibleDuplicates.add(key);
+                }
+            }
+        }
+
+        private static int fnv1a(String key) {
+            int hash = 0x811C9DC5;
+            for (int i = 0; i < key.length(); i++) {
+                hash = (hash ^ key.charAt(i)) * 0x01000193;
+            }
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Pagination {total: %d, pages: %d, records: %d, possibleDuplicates: %d %s, "
+                            + "missing: %d, malformedPages: %s}",
+                    total, pages.get(), records, duplicateCount, possibleDuplicates, getMissing(), malformedPages);
+        }
+    }
+}
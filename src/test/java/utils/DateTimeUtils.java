@@ -1,21 +1,166 @@
 package utils;
 
+import model.dao.user.AddressDao;
+import model.dao.user.UserDao;
+import model.dto.user.GetUserAddressResponse;
+import model.dto.user.GetUserResponse;
+
 import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.TimeZone;
+import java.time.format.DateTimeFormatter;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 
 public class DateTimeUtils {
+    // ZoneOffset's range; anything wider is left to the formatter to reject
+    private static final int MAX_OFFSET_MINUTES = 18 * 60;
+    // Resolved once; the suites never change the JVM default time zone
+    private static final ZoneId DEFAULT_ZONE = ZoneId.systemDefault();
+    private static final DateTimeFormatter FALLBACK_FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
 
     public static LocalDateTime parseTimeToCurrentTimeZone(String dateTime) {
         return ZonedDateTime.parse(dateTime)
-                .withZoneSameInstant(TimeZone.getDefault().toZoneId()).toLocalDateTime();
+                .withZoneSameInstant(DEFAULT_ZONE).toLocalDateTime();
     }
 
     public static void verifyDateTime(LocalDateTime before, LocalDateTime after, LocalDateTime actual) {
         assertThat(actual.isAfter(before), equalTo(true));
         assertThat(actual.isBefore(after), equalTo(true));
     }
+
+    public static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(DEFAULT_ZONE).toInstant().toEpochMilli();
+    }
+
+    // Fast path for the API's yyyy-MM-ddTHH:mm:ss[.SSS](Z|+HH:MM) timestamps that builds no objects;
+    // anything else, including every invalid value, goes through the ISO formatter so it fails the same way
+    public static long toEpochMillis(String isoDateTime) {
+        int length = isoDateTime.length();
+        if (length < 20 || isoDateTime.charAt(4) != '-' || isoDateTime.charAt(7) != '-'
+                || isoDateTime.charAt(10) != 'T' || isoDateTime.charAt(13) != ':' || isoDateTime.charAt(16) != ':') {
+            return parseWithFormatter(isoDateTime);
+        }
+        int year = digits(isoDateTime, 0, 4);
+        int month = digits(isoDateTime, 5, 2);
+        int day = digits(isoDateTime, 8, 2);
+        int hour = digits(isoDateTime, 11, 2);
+        int minute = digits(isoDateTime, 14, 2);
+        int second = digits(isoDateTime, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return parseWithFormatter(isoDateTime);
+        }
+        if (day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+            return parseWithFormatter(isoDateTime);
+        }
+
+        int position = 19;
+        int millis = 0;
+        if (isoDateTime.charAt(position) == '.') {
+            int fractionDigits = 0;
+            position++;
+            while (position < length && Character.isDigit(isoDateTime.charAt(position))) {
+                if (fractionDigits < 3) {
+                    millis = millis * 10 + isoDateTime.charAt(position) - '0';
+                }
+                fractionDigits++;
+                position++;
+            }
+            if (fractionDigits == 0 || fractionDigits > 9) {
+                return parseWithFormatter(isoDateTime);
+            }
+            for (int i = fractionDigits; i < 3; i++) {
+                millis *= 10;
+            }
+        }
+
+        long offsetMillis;
+        if (position == length - 1 && isoDateTime.charAt(position) == 'Z') {
+            offsetMillis = 0;
+        } else if (position == length - 6 && isoDateTime.charAt(position + 3) == ':'
+                && (isoDateTime.charAt(position) == '+' || isoDateTime.charAt(position) == '-')) {
+            int offsetHours = digits(isoDateTime, position + 1, 2);
+            int offsetMinutes = digits(isoDateTime, position + 4, 2);
+            if (offsetHours < 0 || offsetMinutes < 0 || offsetMinutes > 59
+                    || offsetHours * 60 + offsetMinutes > MAX_OFFSET_MINUTES) {
+                return parseWithFormatter(isoDateTime);
+            }
+            offsetMillis = (offsetHours * 60L + offsetMinutes) * 60_000L
+                    * (isoDateTime.charAt(position) == '-' ? -1 : 1);
+        } else {
+            return parseWithFormatter(isoDateTime);
+        }
+
+        long epochSecond = epochDay(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second;
+        return epochSecond * 1_000L + millis - offsetMillis;
+    }
+
+    // Inclusive bounds: the API truncates to milliseconds, so a record created right at a boundary may equal it
+    public static void verifyEpochMillis(long before, long after, long actual) {
+        if (actual < before || actual > after) {
+            throw new AssertionError(String.format("Expected timestamp %d within [%d, %d]", actual, before, after));
+        }
+    }
+
+    public static void verifyDateTime(long before, long after, String actual) {
+        verifyEpochMillis(before, after, toEpochMillis(actual));
+    }
+
+    public static void verifyDateTime(long before, long after, LocalDateTime actual) {
+        verifyEpochMillis(before, after, toEpochMillis(actual));
+    }
+
+    // Checks every createdAt/updatedAt of the user and its addresses in one pass
+    public static void verifyTimestamps(long before, long after, GetUserResponse user) {
+        verifyDateTime(before, after, user.getCreatedAt());
+        verifyDateTime(before, after, user.getUpdatedAt());
+        if (user.getAddresses() != null) {
+            for (GetUserAddressResponse address : user.getAddresses()) {
+                verifyDateTime(before, after, address.getCreatedAt());
+                verifyDateTime(before, after, address.getUpdatedAt());
+            }
+        }
+    }
+
+    public static void verifyTimestamps(long before, long after, UserDao user) {
+        verifyDateTime(before, after, user.getCreatedAt());
+        verifyDateTime(before, after, user.getUpdatedAt());
+        if (user.getAddresses() != null) {
+            for (AddressDao address : user.getAddresses()) {
+                verifyDateTime(before, after, address.getCreatedAt());
+                verifyDateTime(before, after, address.getUpdatedAt());
+            }
+        }
+    }
+
+    private static long parseWithFormatter(String isoDateTime) {
+        return OffsetDateTime.parse(isoDateTime, FALLBACK_FORMATTER).toInstant().toEpochMilli();
+    }
+
+    private static int digits(String text, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + c - '0';
+        }
+        return value;
+    }
+
+    // Days since 1970-01-01 in the proleptic Gregorian calendar (H. Hinnant's days_from_civil)
+    private static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
 }
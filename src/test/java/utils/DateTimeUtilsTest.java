@@ -0,0 +1,83 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// The fast path of toEpochMillis(String) must agree with OffsetDateTime.parse on everything it accepts
+// and reject everything the formatter rejects
+public class DateTimeUtilsTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2024-02-29T23:59:59Z",
+            "2000-02-29T00:00:00+00:00",
+            "2023-12-31T23:59:59.999Z",
+            "2025-06-15T08:30:00.1+07:00",
+            "2025-06-15T08:30:00.12-03:30",
+            "2025-06-15T08:30:00.123456789-11:45",
+            "1969-12-31T23:59:59.500Z",
+            "1600-03-01T00:00:00-00:00",
+            "2025-01-01T00:00:00+18:00",
+            "2025-01-01T00:00:00-18:00",
+            "2025-01-01T00:00:00.000000000Z",
+            // Accepted by the formatter only, the fast path hands them over
+            "2024-01-01T00:00:00.Z",
+            "2024-01-01T00:00:00z",
+            "+12024-01-01T00:00:00Z"
+    })
+    void verifyFastPathMatchesFormatter(String isoDateTime) {
+        assertThat(DateTimeUtils.toEpochMillis(isoDateTime), equalTo(expected(isoDateTime)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2023-02-29T00:00:00Z",
+            "1900-02-29T00:00:00Z",
+            "2024-02-30T00:00:00Z",
+            "2024-04-31T00:00:00Z",
+            "2024-00-10T00:00:00Z",
+            "2024-01-00T00:00:00Z",
+            "2024-01-01T24:00:00Z",
+            "2024-01-01T00:60:00Z",
+            "2024-01-01T00:00:60Z",
+            "2024-01-01T00:00:00+19:00",
+            "2024-01-01T00:00:00-18:01",
+            "2024-01-01T00:00:00+05:60",
+            "2024-01-01T00:00:00.1234567890Z",
+            "2024-01-01T00:00:00"
+    })
+    void verifyInvalidTimestampsAreRejected(String isoDateTime) {
+        assertThrows(DateTimeParseException.class, () -> expected(isoDateTime));
+        assertThrows(DateTimeParseException.class, () -> DateTimeUtils.toEpochMillis(isoDateTime));
+    }
+
+    @Test
+    void verifyRandomTimestampsMatchFormatter() {
+        Random random = new Random(20241017);
+        long min = Instant.parse("1600-01-01T00:00:00Z").getEpochSecond();
+        long max = Instant.parse("2400-01-01T00:00:00Z").getEpochSecond();
+        for (int i = 0; i < 10_000; i++) {
+            Instant instant = Instant.ofEpochSecond(min + (long) (random.nextDouble() * (max - min)),
+                    random.nextInt(1_000_000_000));
+            ZoneOffset offset = ZoneOffset.ofTotalSeconds((random.nextInt(36 * 4 + 1) - 18 * 4) * 15 * 60);
+            String isoDateTime = DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(instant.atOffset(offset));
+            assertThat(isoDateTime, DateTimeUtils.toEpochMillis(isoDateTime), equalTo(expected(isoDateTime)));
+        }
+    }
+
+    private static long expected(String isoDateTime) {
+        return OffsetDateTime.parse(isoDateTime).toInstant().toEpochMilli();
+    }
+}
@@ -1,49 +1,156 @@
 package utils;
 
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.AgroalDataSourceMetrics;
+import jakarta.persistence.NoResultException;
 import model.dao.user.AddressDao;
 import model.dao.user.UserDao;
 import org.hibernate.SessionFactory;
 import org.hibernate.boot.MetadataSources;
 import org.hibernate.boot.registry.StandardServiceRegistry;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 public class DbUtils {
-    private static SessionFactory sessionFactory;
+    // Keeps each IN list well below PostgreSQL's bind parameter limit and the plan cache friendly
+    public static final int DB_BATCH_SIZE = Integer.getInteger("db.batchSize", 500);
+    private static final String USERS_BY_IDS_QUERY = "from UserDao c LEFT JOIN FETCH c.addresses WHERE c.id IN :ids";
+    private static volatile SessionFactory sessionFactory;
 
     public static SessionFactory getDbConnection() {
+        SessionFactory factory = sessionFactory;
+        if (factory == null) {
+            synchronized (DbUtils.class) {
+                factory = sessionFactory;
+                if (factory == null) {
+                    factory = buildSessionFactory();
+                    sessionFactory = factory;
+                    RunLifecycleExtension.onRunEnd(DbUtils::shutdown);
+                }
+            }
+        }
+        return factory;
+    }
+
+    public static synchronized void shutdown() {
+        if (sessionFactory != null) {
+            try {
+                System.out.println(describePool());
+            } finally {
+                sessionFactory.close();
+                sessionFactory = null;
+            }
+        }
+    }
+
+    // Requires hibernate.agroal.metricsEnabled=true, otherwise every counter reads 0
+    public static AgroalDataSourceMetrics getPoolMetrics() {
+        ConnectionProvider connectionProvider = getDbConnection().unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().requireService(ConnectionProvider.class);
+        if (!connectionProvider.isUnwrappableAs(AgroalDataSource.class)) {
+            throw new IllegalStateException("Hibernate is not using the Agroal connection pool");
+        }
+        return connectionProvider.unwrap(AgroalDataSource.class).getMetrics();
+    }
+
+    public static String describePool() {
+        AgroalDataSourceMetrics metrics = getPoolMetrics();
+        return String.format("DB pool {active: %d, idle: %d, awaiting: %d, maxUsed: %d, acquired: %d, "
+                        + "avgAcquireWait: %dms, maxAcquireWait: %dms}",
+                metrics.activeCount(), metrics.availableCount(), metrics.awaitingCount(), metrics.maxUsedCount(),
+                metrics.acquireCount(), metrics.blockingTimeAverage().toMillis(), metrics.blockingTimeMax().toMillis());
+    }
+
+    private static SessionFactory buildSessionFactory() {
         final StandardServiceRegistry registry =
                 new StandardServiceRegistryBuilder()
                         .build();
         try {
-            if (sessionFactory == null) {
-                sessionFactory =
-                        new MetadataSources(registry)
-                                .addAnnotatedClass(UserDao.class)
-                                .addAnnotatedClass(AddressDao.class)
-                                .buildMetadata()
-                                .buildSessionFactory();
-            }
+            return new MetadataSources(registry)
+                    .addAnnotatedClass(UserDao.class)
+                    .addAnnotatedClass(AddressDao.class)
+                    .buildMetadata()
+                    .buildSessionFactory();
         } catch (Exception e) {
             // The registry would be destroyed by the SessionFactory, but we
             // had trouble building the SessionFactory so destroy it manually.
             StandardServiceRegistryBuilder.destroy(registry);
+            throw new IllegalStateException("Cannot build the Hibernate SessionFactory", e);
         }
+    }
 
-        return sessionFactory;
+    public static UserDao getUserFromDb(String userId) {
+        UserDao user = getUsersFromDb(List.of(userId)).get(UUID.fromString(userId).toString());
+        if (user == null) {
+            throw new NoResultException(String.format("No user %s in DB", userId));
+        }
+        return user;
     }
 
-    public static UserDao getUserFromDb(String userId){
-        SessionFactory sessionFactory = DbUtils.getDbConnection();
+    // Keyed by the canonical lower-case form of each id; ids without a user are absent
+    public static Map<String, UserDao> getUsersFromDb(Collection<String> userIds) {
+        Map<String, UserDao> users = new LinkedHashMap<>();
+        streamUsersFromDb(userIds, user -> users.put(user.getId().toString(), user));
+        return users;
+    }
 
-        AtomicReference<UserDao> userDaoAtomic = new AtomicReference<>();
-        sessionFactory.inTransaction(session -> {
-            userDaoAtomic.set(session.createSelectionQuery("from UserDao c JOIN FETCH c.addresses WHERE c.id = :id", UserDao.class)
-                    .setParameter("id", UUID.fromString(userId))
-                    .getSingleResult());
+    // Loads users chunk by chunk in one transaction and detaches each chunk once consumed,
+    // so memory stays bounded by DB_BATCH_SIZE however many ids are verified
+    public static void streamUsersFromDb(Collection<String> userIds, Consumer<UserDao> consumer) {
+        List<List<UUID>> chunks = chunks(userIds.stream().map(UUID::fromString).toList(), DB_BATCH_SIZE);
+        if (chunks.isEmpty()) {
+            return;
+        }
+        getDbConnection().inTransaction(session -> {
+            for (List<UUID> chunk : chunks) {
+                session.createSelectionQuery(USERS_BY_IDS_QUERY, UserDao.class)
+                        .setParameterList("ids", chunk)
+                        .getResultList()
+                        .forEach(consumer);
+                session.clear();
+            }
         });
-        return userDaoAtomic.get();
+    }
+
+    // Deletes users and their addresses straight through the mappings, bypassing the API.
+    // Returns the ids whose chunk could not be deleted.
+    public static List<String> deleteUsersFromDb(Collection<String> userIds) {
+        List<String> failedIds = new ArrayList<>();
+        for (List<String> chunk : chunks(userIds, DB_BATCH_SIZE)) {
+            List<UUID> uuids = chunk.stream().map(UUID::fromString).toList();
+            try {
+                getDbConnection().inTransaction(session -> {
+                    session.createMutationQuery("delete from AddressDao a WHERE a.customerId IN :ids")
+                            .setParameterList("ids", uuids)
+                            .executeUpdate();
+                    session.createMutationQuery("delete from UserDao c WHERE c.id IN :ids")
+                            .setParameterList("ids", uuids)
+                            .executeUpdate();
+                });
+            } catch (RuntimeException e) {
+                System.err.printf("Cannot delete %d users from DB: %s%n", chunk.size(), e);
+                failedIds.addAll(chunk);
+            }
+        }
+        return failedIds;
+    }
+
+    // The distinct values in encounter order, split into lists of at most size values, one per IN query
+    static <T> List<List<T>> chunks(Collection<T> values, int size) {
+        List<T> distinct = values.stream().distinct().toList();
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += size) {
+            chunks.add(distinct.subList(from, Math.min(from + size, distinct.size())));
+        }
+        return chunks;
     }
 }
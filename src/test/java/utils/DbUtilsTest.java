@@ -0,0 +1,70 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+// Covers how ids are split into IN queries; the queries themselves need the database, see CreateUserTest
+public class DbUtilsTest {
+
+    @Test
+    void verifyIdsAreChunkedAcrossBatchSize() {
+        List<UUID> ids = ids(2 * DbUtils.DB_BATCH_SIZE + 1);
+
+        List<List<UUID>> chunks = DbUtils.chunks(ids, DbUtils.DB_BATCH_SIZE);
+
+        assertThat(chunks.stream().map(List::size).toList(),
+                contains(DbUtils.DB_BATCH_SIZE, DbUtils.DB_BATCH_SIZE, 1));
+        assertThat(chunks.stream().flatMap(List::stream).toList(), equalTo(ids));
+    }
+
+    @Test
+    void verifyExactMultipleOfBatchSizeHasNoEmptyChunk() {
+        List<List<UUID>> chunks = DbUtils.chunks(ids(DbUtils.DB_BATCH_SIZE), DbUtils.DB_BATCH_SIZE);
+
+        assertThat(chunks.stream().map(List::size).toList(), contains(DbUtils.DB_BATCH_SIZE));
+    }
+
+    @Test
+    void verifyDuplicateIdsAreQueriedOnce() {
+        List<UUID> ids = ids(DbUtils.DB_BATCH_SIZE);
+        List<UUID> withDuplicates = new ArrayList<>(ids);
+        withDuplicates.addAll(ids.subList(0, 10));
+        withDuplicates.add(0, ids.get(DbUtils.DB_BATCH_SIZE - 1));
+
+        List<List<UUID>> chunks = DbUtils.chunks(withDuplicates, DbUtils.DB_BATCH_SIZE);
+
+        // One chunk, not two: duplicates are dropped before splitting and the first occurrence keeps its place
+        assertThat(chunks.size(), equalTo(1));
+        assertThat(chunks.get(0).size(), equalTo(DbUtils.DB_BATCH_SIZE));
+        assertThat(chunks.get(0).get(0), equalTo(ids.get(DbUtils.DB_BATCH_SIZE - 1)));
+    }
+
+    // The same id spelled in upper case is the same user
+    @Test
+    void verifyIdsAreDeduplicatedAsUuids() {
+        UUID id = UUID.randomUUID();
+        List<UUID> parsed = List.of(id.toString(), id.toString().toUpperCase()).stream()
+                .map(UUID::fromString)
+                .toList();
+
+        assertThat(DbUtils.chunks(parsed, DbUtils.DB_BATCH_SIZE), contains(List.of(id)));
+    }
+
+    @Test
+    void verifyNoIdsMeansNoQuery() {
+        assertThat(DbUtils.chunks(List.of(), DbUtils.DB_BATCH_SIZE), empty());
+    }
+
+    private static List<UUID> ids(int count) {
+        return IntStream.range(0, count).mapToObj(i -> UUID.randomUUID()).toList();
+    }
+}
@@ -0,0 +1,136 @@
+package utils;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Run-wide latency histograms per endpoint and phase, in microseconds. Written as JSON and CSV when the run ends.
+public class EndpointTimings {
+    public static final Path REPORT_DIR = Path.of(System.getProperty("perf.reportDir", "build/reports/perf"));
+    public static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private static final Map<String, Map<Phase, Histogram>> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final AtomicBoolean REPORT_REGISTERED = new AtomicBoolean();
+
+    public enum Phase {
+        DNS, CONNECT, TTFB, TOTAL
+    }
+
+    private EndpointTimings() {
+    }
+
+    // Negative durations mean the phase did not happen for this call
+    public static void record(String endpoint, long dnsNanos, long connectNanos, long firstByteNanos, long totalNanos) {
+        Map<Phase, Histogram> histograms = HISTOGRAMS.computeIfAbsent(endpoint, key -> {
+            // Filled once here and only read afterwards
+            Map<Phase, Histogram> byPhase = new EnumMap<>(Phase.class);
+            for (Phase phase : Phase.values()) {
+                byPhase.put(phase, new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+            }
+            return byPhase;
+        });
+        recordMicros(histograms.get(Phase.DNS), dnsNanos);
+        recordMicros(histograms.get(Phase.CONNECT), connectNanos);
+        recordMicros(histograms.get(Phase.TTFB), firstByteNanos);
+        recordMicros(histograms.get(Phase.TOTAL), totalNanos);
+        if (REPORT_REGISTERED.compareAndSet(false, true)) {
+            RunLifecycleExtension.onRunEnd(EndpointTimings::writeReport);
+            PerformanceBaseline.startRun();
+        }
+    }
+
+    public static Histogram getHistogram(String endpoint, Phase phase) {
+        Map<Phase, Histogram> histograms = HISTOGRAMS.get(endpoint);
+        return histograms == null ? null : histograms.get(phase).copy();
+    }
+
+    public static Map<String, Map<Phase, Histogram>> snapshot() {
+        Map<String, Map<Phase, Histogram>> snapshot = new TreeMap<>();
+        HISTOGRAMS.forEach((endpoint, histograms) -> {
+            Map<Phase, Histogram> copy = new EnumMap<>(Phase.class);
+            histograms.forEach((phase, histogram) -> copy.put(phase, histogram.copy()));
+            snapshot.put(endpoint, copy);
+        });
+        return snapshot;
+    }
+
+    public static void writeReport() {
+        Map<String, Map<Phase, Histogram>> snapshot = snapshot();
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        Map<String, Map<String, Map<String, Object>>> json = new LinkedHashMap<>();
+        StringBuilder csv = new StringBuilder("endpoint,phase,count,min_ms,mean_ms");
+        for (double percentile : PERCENTILES) {
+            csv.append(",p").append(percentileLabel(percentile)).append("_ms");
+        }
+        csv.append(",max_ms\n");
+        StringBuilder summary = new StringBuilder("Endpoint timings (total) {");
+
+        snapshot.forEach((endpoint, histograms) -> {
+            Map<String, Map<String, Object>> phases = new LinkedHashMap<>();
+            histograms.forEach((phase, histogram) -> {
+                if (histogram.getTotalCount() == 0) {
+                    return;
+                }
+                Map<String, Object> stats = describe(histogram);
+                phases.put(phase.name().toLowerCase(), stats);
+                csv.append(endpoint).append(',').append(phase.name().toLowerCase());
+                stats.values().forEach(value -> csv.append(',').append(value));
+                csv.append('\n');
+            });
+            json.put(endpoint, phases);
+            Histogram total = histograms.get(Phase.TOTAL);
+            summary.append(String.format("%n  %s: count=%d, p50=%.1fms, p99=%.1fms, max=%.1fms", endpoint,
+                    total.getTotalCount(), millis(total.getValueAtPercentile(50)),
+                    millis(total.getValueAtPercentile(99)), millis(total.getMaxValue())));
+        });
+
+        try {
+            Files.createDirectories(REPORT_DIR);
+            JsonUtils.prettyWriter().writeValue(REPORT_DIR.resolve("timings.json").toFile(), json);
+            Files.writeString(REPORT_DIR.resolve("timings.csv"), csv);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.out.println(summary.append(String.format("%n} written to %s", REPORT_DIR.toAbsolutePath())));
+    }
+
+    private static Map<String, Object> describe(Histogram histogram) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", histogram.getTotalCount());
+        stats.put("min_ms", millis(histogram.getMinValue()));
+        stats.put("mean_ms", Math.round(histogram.getMean()) / 1000.0);
+        for (double percentile : PERCENTILES) {
+            stats.put("p" + percentileLabel(percentile) + "_ms", millis(histogram.getValueAtPercentile(percentile)));
+        }
+        stats.put("max_ms", millis(histogram.getMaxValue()));
+        return stats;
+    }
+
+    private static String percentileLabel(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile)
+                : String.valueOf(percentile).replace(".", "");
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static void recordMicros(Histogram histogram, long nanos) {
+        if (nanos >= 0) {
+            histogram.recordValue(nanos / 1_000);
+        }
+    }
+}
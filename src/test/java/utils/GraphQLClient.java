@@ -0,0 +1,204 @@
+package utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import model.dto.graphql.QueryRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static utils.ConstantUtils.CONTENT_TYPE_HEADER;
+import static utils.ConstantUtils.REQUEST_CONTENT_TYPE_HEADER_VALUE;
+
+// Sends the operations of GraphQLDocuments by name. With persisted queries (Apollo APQ) only the sha256 of the
+// query goes out first and the full text follows only when the server does not know the hash yet:
+//   Response response = new GraphQLClient(GRAPHQL_SPEC).execute("verifyCountry", Map.of("code", "VN"));
+public class GraphQLClient {
+    public static final boolean PERSISTED_QUERIES =
+            Boolean.parseBoolean(System.getProperty("graphql.persistedQueries", "true"));
+
+    private final RequestSpecification spec;
+    // Cleared once the server shows it cannot serve a hash alone, so later calls skip the extra round trip
+    private final AtomicBoolean persistedQueries;
+
+    public GraphQLClient(RequestSpecification spec) {
+        this(spec, PERSISTED_QUERIES);
+    }
+
+    public GraphQLClient(RequestSpecification spec, boolean persistedQueries) {
+        this.spec = spec;
+        this.persistedQueries = new AtomicBoolean(persistedQueries);
+    }
+
+    public boolean isUsingPersistedQueries() {
+        return persistedQueries.get();
+    }
+
+    public Response execute(String operationName, Map<String, ?> variables) {
+        return execute(GraphQLDocuments.operation(operationName), variables);
+    }
+
+    // For operations that are not registered by name, e.g. GraphQLProjection.trimmedOperation()
+    public Response execute(GraphQLDocuments.Operation operation, Map<String, ?> variables) {
+        if (!persistedQueries.get()) {
+            return post(request(operation, variables, true, false));
+        }
+        Response response = post(request(operation, variables, false, true));
+        Miss miss = miss(response.asByteArray());
+        if (miss == Miss.NONE) {
+            return response;
+        }
+        if (miss == Miss.NOT_SUPPORTED) {
+            persistedQueries.set(false);
+        }
+        // Sending the text together with the hash registers it for the next call
+        Response retried = post(request(operation, variables, true, miss == Miss.NOT_FOUND));
+        if (miss == Miss.UNKNOWN && miss(retried.asByteArray()) == Miss.NONE) {
+            persistedQueries.set(false);
+        }
+        return retried;
+    }
+
+    // Several operations in one HTTP request; the result of each comes back in the order of the calls
+    public List<JsonNode> batch(List<Call> calls) {
+        boolean persisted = persistedQueries.get();
+        List<QueryRequest> requests = new ArrayList<>(calls.size());
+        for (Call call : calls) {
+            requests.add(request(GraphQLDocuments.operation(call.operationName()), call.variables(), !persisted,
+                    persisted));
+        }
+        List<JsonNode> results = readBatch(post(requests), calls.size());
+        if (!persisted) {
+            return results;
+        }
+        List<Integer> missed = new ArrayList<>();
+        List<Miss> misses = new ArrayList<>();
+        List<QueryRequest> retries = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            Miss miss = classify(results.get(i));
+            if (miss == Miss.NONE) {
+                continue;
+            }
+            if (miss == Miss.NOT_SUPPORTED) {
+                persistedQueries.set(false);
+            }
+            Call call = calls.get(i);
+            missed.add(i);
+            misses.add(miss);
+            retries.add(request(GraphQLDocuments.operation(call.operationName()), call.variables(), true,
+                    miss == Miss.NOT_FOUND));
+        }
+        if (!missed.isEmpty()) {
+            List<JsonNode> retried = readBatch(post(retries), retries.size());
+            for (int i = 0; i < missed.size(); i++) {
+                results.set(missed.get(i), retried.get(i));
+                if (misses.get(i) == Miss.UNKNOWN && classify(retried.get(i)) == Miss.NONE) {
+                    persistedQueries.set(false);
+                }
+            }
+        }
+        return results;
+    }
+
+    private Response post(Object body) {
+        return RestAssured.given().spec(spec)
+                .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
+                .body(body)
+                .post();
+    }
+
+    private static QueryRequest request(GraphQLDocuments.Operation operation, Map<String, ?> variables,
+                                        boolean withQuery, boolean withHash) {
+        Map<String, ?> extensions = withHash
+                ? Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", operation.sha256Hash()))
+                : null;
+        return new QueryRequest(withQuery ? operation.query() : null, variables, operation.name(), extensions);
+    }
+
+    private static List<JsonNode> readBatch(Response response, int expectedSize) {
+        JsonNode body;
+        try {
+            body = JsonUtils.readTree(response.asByteArray());
+        } catch (UncheckedIOException e) {
+            body = null;
+        }
+        if (body == null || !body.isArray() || body.size() != expectedSize) {
+            throw new IllegalStateException(String.format(
+                    "Expected %d results for a GraphQL batch but got status %d: %s", expectedSize,
+                    response.statusCode(), response.asString()));
+        }
+        List<JsonNode> results = new ArrayList<>(expectedSize);
+        body.forEach(results::add);
+        return results;
+    }
+
+    // Reads only up to "data", which comes first in almost every response that was served from the hash
+    private static Miss miss(byte[] body) {
+        try (JsonParser parser = JsonUtils.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return Miss.UNKNOWN;
+            }
+            JsonNode errors = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("data".equals(name) && value != JsonToken.VALUE_NULL) {
+                    return Miss.NONE;
+                }
+                if ("errors".equals(name)) {
+                    errors = parser.readValueAsTree();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return classifyErrors(errors);
+        } catch (IOException e) {
+            // Not even JSON, e.g. an HTML 400 page for a request without a query
+            return Miss.UNKNOWN;
+        }
+    }
+
+    private static Miss classify(JsonNode result) {
+        JsonNode data = result.get("data");
+        if (data != null && !data.isNull()) {
+            return Miss.NONE;
+        }
+        return classifyErrors(result.get("errors"));
+    }
+
+    private static Miss classifyErrors(JsonNode errors) {
+        if (errors != null) {
+            for (JsonNode error : errors) {
+                String code = error.path("extensions").path("code").asText();
+                String message = error.path("message").asText();
+                if ("PERSISTED_QUERY_NOT_FOUND".equals(code) || "PersistedQueryNotFound".equals(message)) {
+                    return Miss.NOT_FOUND;
+                }
+                if ("PERSISTED_QUERY_NOT_SUPPORTED".equals(code) || "PersistedQueryNotSupported".equals(message)) {
+                    return Miss.NOT_SUPPORTED;
+                }
+            }
+        }
+        return Miss.UNKNOWN;
+    }
+
+    // UNKNOWN is a response without data that names no persisted query error: either the server ignored the hash
+    // or the operation itself failed. Only a full text retry that succeeds tells them apart.
+    private enum Miss {
+        NONE, NOT_FOUND, NOT_SUPPORTED, UNKNOWN
+    }
+
+    public record Call(String operationName, Map<String, ?> variables) {
+        public static Call of(String operationName, Map<String, ?> variables) {
+            return new Call(operationName, variables);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package utils;
+
+import graphql.language.AstPrinter;
+import graphql.language.Document;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.Node;
+import graphql.language.OperationDefinition;
+import graphql.language.VariableReference;
+import graphql.parser.InvalidSyntaxException;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.UnExecutableSchemaGenerator;
+import graphql.validation.ValidationError;
+import graphql.validation.Validator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Every operation in graphql/grapql-query/ is parsed and validated against schema.graphql once, when the class
+// loads, and kept by operation name together with its compact text and the sha256 used for persisted queries.
+// A broken query therefore fails the first test that touches GraphQL rather than going over the wire.
+public class GraphQLDocuments {
+    public static final String SCHEMA_PATH = "schema.graphql";
+    public static final String QUERY_DIR = "graphql/grapql-query/";
+
+    private static final GraphQLSchema SCHEMA = parseSchema();
+    private static final Map<String, Operation> OPERATIONS = new ConcurrentHashMap<>();
+
+    static {
+        for (String file : listQueryFiles()) {
+            load(QUERY_DIR + file);
+        }
+    }
+
+    private GraphQLDocuments() {
+    }
+
+    public static Operation operation(String name) {
+        Operation operation = OPERATIONS.get(name);
+        if (operation == null) {
+            throw new IllegalArgumentException(String.format("No GraphQL operation %s in %s", name, QUERY_DIR));
+        }
+        return operation;
+    }
+
+    // For documents outside QUERY_DIR; returns the operations the document declares
+    public static List<Operation> load(String resourcePath) {
+        Document document;
+        try {
+            document = Parser.parse(IFileUtils.readFileFromResources(resourcePath));
+        } catch (InvalidSyntaxException e) {
+            throw new IllegalStateException(String.format("Cannot parse %s: %s", resourcePath, e.getMessage()), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        validate(document, resourcePath);
+        List<Operation> operations = new ArrayList<>();
+        for (OperationDefinition definition : document.getDefinitionsOfType(OperationDefinition.class)) {
+            if (definition.getName() == null) {
+                throw new IllegalStateException(String.format("%s has an anonymous operation, name it to send it",
+                        resourcePath));
+            }
+            // Each operation travels with only the fragments it uses and without the whitespace; servers reject
+            // documents with unused fragments
+            Document.Builder single = Document.newDocument().definition(definition);
+            reachableFragments(definition, document, new HashSet<>()).forEach(single::definition);
+            Operation operation = compile(definition.getName(), single.build(), resourcePath);
+            Operation previous = OPERATIONS.putIfAbsent(operation.name(), operation);
+            if (previous != null && !previous.resourcePath().equals(resourcePath)) {
+                throw new IllegalStateException(String.format("Operation %s is declared in both %s and %s",
+                        operation.name(), previous.resourcePath(), resourcePath));
+            }
+            operations.add(operation);
+        }
+        return operations;
+    }
+
+    static GraphQLSchema schema() {
+        return SCHEMA;
+    }
+
+    static void validate(Document document, String source) {
+        List<ValidationError> errors = new Validator().validateDocument(SCHEMA, document, Locale.ENGLISH);
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException(String.format("%s does not match %s:%n%s", source, SCHEMA_PATH,
+                    String.join(System.lineSeparator(), errors.stream().map(ValidationError::getMessage).toList())));
+        }
+    }
+
+    // The fragments of the document that node spreads, directly or through other fragments, in document order.
+    // The variables referenced along the way are added to variables.
+    static List<FragmentDefinition> reachableFragments(Node<?> node, Document document, Set<String> variables) {
+        Map<String, FragmentDefinition> fragments = new HashMap<>();
+        for (FragmentDefinition fragment : document.getDefinitionsOfType(FragmentDefinition.class)) {
+            fragments.put(fragment.getName(), fragment);
+        }
+        Set<String> reached = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        collect(node, variables, pending);
+        while (!pending.isEmpty()) {
+            FragmentDefinition fragment = fragments.get(pending.pop());
+            if (fragment != null && reached.add(fragment.getName())) {
+                collect(fragment, variables, pending);
+            }
+        }
+        return document.getDefinitionsOfType(FragmentDefinition.class).stream()
+                .filter(fragment -> reached.contains(fragment.getName()))
+                .toList();
+    }
+
+    // An already validated document holding one operation, e.g. a trimmed copy made by GraphQLProjection
+    static Operation compile(String name, Document document, String source) {
+        String query = AstPrinter.printAstCompact(document);
+        return new Operation(name, query, sha256(query), source);
+    }
+
+    private static void collect(Node<?> node, Set<String> variables, Deque<String> spreads) {
+        if (node instanceof VariableReference reference) {
+            variables.add(reference.getName());
+        } else if (node instanceof FragmentSpread spread) {
+            spreads.push(spread.getName());
+        }
+        for (Node<?> child : node.getChildren()) {
+            collect(child, variables, spreads);
+        }
+    }
+
+    private static GraphQLSchema parseSchema() {
+        try {
+            return UnExecutableSchemaGenerator.makeUnExecutableSchema(
+                    new SchemaParser().parse(IFileUtils.readFileFromResources(SCHEMA_PATH)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> listQueryFiles() {
+        URL directory = GraphQLDocuments.class.getClassLoader().getResource(QUERY_DIR);
+        if (directory == null) {
+            return List.of();
+        }
+        try {
+            if ("jar".equals(directory.getProtocol())) {
+                JarURLConnection connection = (JarURLConnection) directory.openConnection();
+                return connection.getJarFile().stream()
+                        .map(entry -> entry.getName())
+                        .filter(name -> name.startsWith(QUERY_DIR) && name.endsWith(".graphql"))
+                        .map(name -> name.substring(QUERY_DIR.length()))
+                        .filter(name -> !name.contains("/"))
+                        .sorted()
+                        .toList();
+            }
+            try (Stream<Path> files = Files.list(Path.of(directory.toURI()))) {
+                return files.map(file -> file.getFileName().toString())
+                        .filter(name -> name.endsWith(".graphql"))
+                        .sorted()
+                        .toList();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sha256(String query) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Operation(String name, String query, String sha256Hash, String resourcePath) {
+    }
+}
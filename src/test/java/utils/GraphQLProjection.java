@@ -0,0 +1,282 @@
+package utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.VariableDefinition;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// The part of an operation's response that a test asserts on, given as dot separated paths below "data".
+// Lists are transparent and a path that ends on an object keeps all of it:
+//   GraphQLProjection.of("verifyCountry", "country.name", "country.languages.code")
+// read() builds only those paths while streaming the response and skips the rest unparsed; trimmedOperation()
+// is the same operation asking for nothing else. Paths are checked against the operation and schema.graphql.
+public class GraphQLProjection {
+    private static final Map<String, ProjectionStats> STATS = new ConcurrentHashMap<>();
+    private static final AtomicBoolean REPORT_REGISTERED = new AtomicBoolean();
+
+    private final GraphQLDocuments.Operation operation;
+    private final List<String> paths;
+    private final PathNode root = new PathNode();
+    private final GraphQLDocuments.Operation trimmed;
+
+    private GraphQLProjection(GraphQLDocuments.Operation operation, List<String> paths) {
+        this.operation = operation;
+        this.paths = List.copyOf(paths);
+        Document document = Parser.parse(operation.query());
+        OperationDefinition definition = document.getDefinitionsOfType(OperationDefinition.class).get(0);
+        for (String path : paths) {
+            check(path, definition);
+            PathNode node = root;
+            for (String segment : path.split("\\.")) {
+                node = node.children.computeIfAbsent(segment, key -> new PathNode());
+            }
+            node.whole = true;
+        }
+        trimmed = trim(document, definition);
+    }
+
+    public static GraphQLProjection of(String operationName, String... paths) {
+        if (paths.length == 0) {
+            throw new IllegalArgumentException("A projection needs at least one path");
+        }
+        return new GraphQLProjection(GraphQLDocuments.operation(operationName), List.of(paths));
+    }
+
+    public GraphQLDocuments.Operation getOperation() {
+        return operation;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    // The operation with only the projected selections, validated against the schema like the original
+    public GraphQLDocuments.Operation trimmedOperation() {
+        return trimmed;
+    }
+
+    // Only responses count towards the stats; fixtures read through the projection would inflate the savings
+    public JsonNode read(Response response) {
+        byte[] body = response.asByteArray();
+        Skipped skipped = new Skipped();
+        JsonNode result = read(body, skipped);
+        record(body.length, skipped.bytes);
+        return result;
+    }
+
+    public JsonNode read(byte[] body) {
+        return read(body, new Skipped());
+    }
+
+    // E.g. an expected fixture from IFileUtils.openResource, projected the same way as the response
+    public JsonNode read(InputStream body) {
+        try (JsonParser parser = JsonUtils.createParser(body)) {
+            return read(parser, new Skipped());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static String describeStats() {
+        StringBuilder builder = new StringBuilder("GraphQL projections {");
+        new TreeMap<>(STATS).forEach((name, stats) -> {
+            long total = stats.responseBytes.sum();
+            long skipped = stats.skippedBytes.sum();
+            builder.append(String.format(
+                    "%n  %s: responses=%d, skipped %d of %d bytes (%.1f%%), query %d -> %d bytes", name,
+                    stats.responses.sum(), skipped, total, total == 0 ? 0.0 : 100.0 * skipped / total,
+                    stats.queryBytes, stats.trimmedQueryBytes));
+        });
+        return builder.append(String.format("%n}")).toString();
+    }
+
+    @Override
+    public String toString() {
+        return operation.name() + paths;
+    }
+
+    private JsonNode read(byte[] body, Skipped skipped) {
+        try (JsonParser parser = JsonUtils.createParser(body)) {
+            return read(parser, skipped);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The envelope keeps errors and extensions as they are, only data is projected
+    private JsonNode read(JsonParser parser, Skipped skipped) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IllegalStateException(String.format("Expected a GraphQL response object for %s", this));
+        }
+        ObjectNode result = JsonNodeFactory.instance.objectNode();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            if ("data".equals(name)) {
+                result.set(name, project(parser, root, skipped));
+            } else {
+                result.set(name, parser.readValueAsTree());
+            }
+        }
+        return result;
+    }
+
+    private static JsonNode project(JsonParser parser, PathNode node, Skipped skipped) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (node.whole || (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY)) {
+            return parser.readValueAsTree();
+        }
+        if (token == JsonToken.START_ARRAY) {
+            ArrayNode array = JsonNodeFactory.instance.arrayNode();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                array.add(project(parser, node, skipped));
+            }
+            return array;
+        }
+        ObjectNode object = JsonNodeFactory.instance.objectNode();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            PathNode child = node.children.get(name);
+            parser.nextToken();
+            if (child == null) {
+                long start = parser.currentTokenLocation().getByteOffset();
+                parser.skipChildren();
+                skipped.bytes += parser.currentLocation().getByteOffset() - start;
+            } else {
+                object.set(name, project(parser, child, skipped));
+            }
+        }
+        return object;
+    }
+
+    // Walks the operation's selections and the schema types together, so a path must be both selected and real
+    private void check(String path, OperationDefinition definition) {
+        SelectionSet selections = definition.getSelectionSet();
+        GraphQLType type = GraphQLDocuments.schema().getQueryType();
+        for (String segment : path.split("\\.")) {
+            if (!(GraphQLTypeUtil.unwrapAll(type) instanceof GraphQLFieldsContainer container) || selections == null) {
+                throw new IllegalArgumentException(String.format("%s of %s goes below a scalar at %s", path,
+                        operation.name(), segment));
+            }
+            Field field = selectedField(selections, segment);
+            GraphQLFieldDefinition fieldDefinition =
+                    field == null ? null : container.getFieldDefinition(field.getName());
+            if (fieldDefinition == null) {
+                throw new IllegalArgumentException(String.format("%s of %s is not selected by the operation at %s",
+                        path, operation.name(), segment));
+            }
+            selections = field.getSelectionSet();
+            type = fieldDefinition.getType();
+        }
+    }
+
+    private static Field selectedField(SelectionSet selections, String resultKey) {
+        for (Selection<?> selection : selections.getSelections()) {
+            if (selection instanceof Field field && field.getResultKey().equals(resultKey)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private GraphQLDocuments.Operation trim(Document document, OperationDefinition definition) {
+        SelectionSet selections = trim(definition.getSelectionSet(), root);
+        // Variables and fragments only the dropped selections used would fail validation
+        Set<String> variables = new HashSet<>();
+        List<FragmentDefinition> fragments = GraphQLDocuments.reachableFragments(selections, document, variables);
+        List<VariableDefinition> used = definition.getVariableDefinitions().stream()
+                .filter(variable -> variables.contains(variable.getName()))
+                .toList();
+        Document.Builder builder = Document.newDocument()
+                .definition(definition.transform(copy -> copy.selectionSet(selections)
+                        .variableDefinitions(used)));
+        fragments.forEach(builder::definition);
+        Document trimmedDocument = builder.build();
+        String source = operation.resourcePath() + " trimmed to " + paths;
+        GraphQLDocuments.validate(trimmedDocument, source);
+        GraphQLDocuments.Operation trimmedOperation =
+                GraphQLDocuments.compile(operation.name(), trimmedDocument, source);
+        ProjectionStats stats = STATS.computeIfAbsent(toString(), key -> new ProjectionStats());
+        stats.queryBytes = operation.query().length();
+        stats.trimmedQueryBytes = trimmedOperation.query().length();
+        return trimmedOperation;
+    }
+
+    private static SelectionSet trim(SelectionSet selections, PathNode node) {
+        List<Selection<?>> kept = new ArrayList<>();
+        for (Selection<?> selection : selections.getSelections()) {
+            if (!(selection instanceof Field field)) {
+                // Fragments and inline fragments are kept whole
+                kept.add(selection);
+                continue;
+            }
+            PathNode child = node.children.get(field.getResultKey());
+            if (child == null) {
+                continue;
+            }
+            if (child.whole || field.getSelectionSet() == null) {
+                kept.add(field);
+            } else {
+                SelectionSet nested = trim(field.getSelectionSet(), child);
+                kept.add(field.transform(builder -> builder.selectionSet(nested)));
+            }
+        }
+        return selections.transform(builder -> builder.selections(kept));
+    }
+
+    private void record(long responseBytes, long skippedBytes) {
+        ProjectionStats stats = STATS.computeIfAbsent(toString(), key -> new ProjectionStats());
+        stats.responses.increment();
+        stats.responseBytes.add(responseBytes);
+        stats.skippedBytes.add(skippedBytes);
+        if (REPORT_REGISTERED.compareAndSet(false, true)) {
+            RunLifecycleExtension.onRunEnd(() -> System.out.println(describeStats()));
+        }
+    }
+
+    private static class PathNode {
+        private final Map<String, PathNode> children = new LinkedHashMap<>();
+        private boolean whole;
+    }
+
+    private static class Skipped {
+        private long bytes;
+    }
+
+    private static class ProjectionStats {
+        private final LongAdder responses = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+        private final LongAdder skippedBytes = new LongAdder();
+        private volatile long queryBytes;
+        private volatile long trimmedQueryBytes;
+    }
+}
@@ -0,0 +1,148 @@
+package utils;
+
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.config.RestAssuredConfig;
+import lombok.AllArgsConstructor;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeLayeredSocketFactory;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+@SuppressWarnings("deprecation")
+public class HttpClientUtils {
+    public static final int MAX_TOTAL_CONNECTIONS = Integer.getInteger("http.pool.maxTotal", 64);
+    public static final int MAX_CONNECTIONS_PER_ROUTE = Integer.getInteger("http.pool.maxPerRoute", 32);
+    public static final int CONNECT_TIMEOUT_MS = Integer.getInteger("http.connectTimeout", 5_000);
+    public static final int READ_TIMEOUT_MS = Integer.getInteger("http.readTimeout", 30_000);
+    // Express closes idle sockets after 5s, so drop ours slightly earlier to avoid reusing a dead connection
+    public static final long MAX_IDLE_KEEP_ALIVE_MS = Long.getLong("http.keepAlive", 4_000L);
+
+    // RestAssured only accepts the legacy AbstractHttpClient API, hence the deprecated pool manager
+    private static final PoolingClientConnectionManager CONNECTION_POOL = createConnectionPool();
+    private static final ConnectionKeepAliveStrategy KEEP_ALIVE_STRATEGY = (response, context) -> {
+        long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+        return serverKeepAlive > 0 ? Math.min(serverKeepAlive, MAX_IDLE_KEEP_ALIVE_MS) : MAX_IDLE_KEEP_ALIVE_MS;
+    };
+    private static final RestAssuredConfig REST_ASSURED_CONFIG = RestAssuredConfig.config()
+            .httpClient(HttpClientConfig.httpClientConfig().httpClientFactory(HttpClientUtils::createHttpClient))
+            .objectMapperConfig(ObjectMapperConfig.objectMapperConfig()
+                    .jackson2ObjectMapperFactory((type, charset) -> JsonUtils.restAssuredMapper()));
+
+    private HttpClientUtils() {
+    }
+
+    public static RestAssuredConfig restAssuredConfig() {
+        return REST_ASSURED_CONFIG;
+    }
+
+    public static PoolStats getPoolStats() {
+        return CONNECTION_POOL.getTotalStats();
+    }
+
+    public static String describePool() {
+        PoolStats stats = getPoolStats();
+        return String.format("HTTP pool {leased: %d, idle: %d, pending: %d, max: %d}",
+                stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax());
+    }
+
+    // RestAssured mutates client params on every request, so each request gets its own lightweight
+    // client while all of them lease connections from the one shared pool
+    private static HttpClient createHttpClient() {
+        HttpParams params = new BasicHttpParams();
+        HttpConnectionParams.setConnectionTimeout(params, CONNECT_TIMEOUT_MS);
+        HttpConnectionParams.setSoTimeout(params, READ_TIMEOUT_MS);
+        HttpConnectionParams.setStaleCheckingEnabled(params, true);
+        HttpConnectionParams.setTcpNoDelay(params, true);
+
+        DefaultHttpClient client = new DefaultHttpClient(CONNECTION_POOL, params);
+        client.setKeepAliveStrategy(KEEP_ALIVE_STRATEGY);
+        // RestAssured only drains the body when a test reads it, so a status-only check would keep its
+        // connection leased forever. A non-streaming entity lets the client hand the connection back at once.
+        client.addResponseInterceptor((response, context) -> {
+            TimingFilter.markHeadersReceived();
+            HttpEntity entity = response.getEntity();
+            if (entity != null && entity.isStreaming()) {
+                response.setEntity(new BufferedHttpEntity(entity));
+            }
+        });
+        return client;
+    }
+
+    private static PoolingClientConnectionManager createConnectionPool() {
+        // Wrapped resolver and socket factories report DNS and connect times to TimingFilter
+        SchemeRegistry schemes = new SchemeRegistry();
+        schemes.register(new Scheme("http", 80, new TimedSocketFactory(PlainSocketFactory.getSocketFactory())));
+        schemes.register(new Scheme("https", 443, new TimedLayeredSocketFactory(SSLSocketFactory.getSocketFactory())));
+        DnsResolver dnsResolver = host -> {
+            long start = System.nanoTime();
+            try {
+                return SystemDefaultDnsResolver.INSTANCE.resolve(host);
+            } finally {
+                TimingFilter.recordDns(System.nanoTime() - start);
+            }
+        };
+        PoolingClientConnectionManager pool = new PoolingClientConnectionManager(schemes, dnsResolver);
+        pool.setMaxTotal(MAX_TOTAL_CONNECTIONS);
+        pool.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ROUTE);
+        return pool;
+    }
+
+    // Must not be layered itself: HttpClient treats any layered factory as a secure scheme
+    @AllArgsConstructor
+    private static class TimedSocketFactory implements SchemeSocketFactory {
+        protected final SchemeSocketFactory delegate;
+
+        @Override
+        public Socket createSocket(HttpParams params) throws IOException {
+            return delegate.createSocket(params);
+        }
+
+        // For https this includes the TLS handshake
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return delegate.connectSocket(socket, remoteAddress, localAddress, params);
+            } finally {
+                TimingFilter.recordConnect(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public boolean isSecure(Socket socket) {
+            return delegate.isSecure(socket);
+        }
+    }
+
+    private static class TimedLayeredSocketFactory extends TimedSocketFactory implements SchemeLayeredSocketFactory {
+        TimedLayeredSocketFactory(SchemeLayeredSocketFactory delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpParams params) throws IOException {
+            return ((SchemeLayeredSocketFactory) delegate).createLayeredSocket(socket, target, port, params);
+        }
+    }
+}
@@ -1,14 +1,124 @@
 package utils;
 
-import org.apache.commons.io.FileUtils;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+// Fixture store for classpath resources. Resources are read through streams, so they also load from a jar.
+// Small ones are kept in an LRU bounded by total bytes; large files on disk are memory-mapped once instead.
 public class IFileUtils {
+    public static final long CACHE_MAX_BYTES = Long.getLong("fixtures.cacheBytes", 32L * 1024 * 1024);
+    public static final long MMAP_THRESHOLD_BYTES = Long.getLong("fixtures.mmapThreshold", 1024L * 1024);
+
+    private static final Map<String, ByteBuffer> CACHE = new LinkedHashMap<>(64, 0.75f, true);
+    // Mapped files live outside the heap, so they do not count against the LRU budget
+    private static final Map<String, ByteBuffer> MAPPED = new ConcurrentHashMap<>();
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static long cachedBytes;
+
     public static String readFileFromResources(String path) throws IOException {
-        ClassLoader classLoader = IFileUtils.class.getClassLoader();
-        File file = new File(classLoader.getResource(path).getFile());
-        return FileUtils.readFileToString(file, "UTF-8");
+        return StandardCharsets.UTF_8.decode(readBufferFromResources(path)).toString();
+    }
+
+    // Read-only view positioned at the start; callers may consume it freely
+    public static ByteBuffer readBufferFromResources(String path) {
+        ByteBuffer buffer = MAPPED.get(path);
+        if (buffer == null) {
+            buffer = cached(path);
+        }
+        if (buffer == null) {
+            MISSES.increment();
+            buffer = load(path);
+        } else {
+            HITS.increment();
+        }
+        return buffer.asReadOnlyBuffer();
+    }
+
+    public static InputStream openResource(String path) {
+        return new ByteBufferBackedInputStream(readBufferFromResources(path));
+    }
+
+    public static byte[] readBytesFromResources(String path) {
+        ByteBuffer buffer = readBufferFromResources(path);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    public static String describeCache() {
+        synchronized (CACHE) {
+            return String.format("Fixtures {cached: %d (%d bytes), mapped: %d, hits: %d, misses: %d}", CACHE.size(),
+                    cachedBytes, MAPPED.size(), HITS.sum(), MISSES.sum());
+        }
+    }
+
+    private static ByteBuffer cached(String path) {
+        synchronized (CACHE) {
+            return CACHE.get(path);
+        }
+    }
+
+    private static ByteBuffer load(String path) {
+        URL url = IFileUtils.class.getClassLoader().getResource(path);
+        if (url == null) {
+            throw new IllegalArgumentException(String.format("Resource %s not found on the classpath", path));
+        }
+        try {
+            Path file = "file".equals(url.getProtocol()) ? Path.of(url.toURI()) : null;
+            if (file != null && file.toFile().length() >= MMAP_THRESHOLD_BYTES) {
+                return MAPPED.computeIfAbsent(path, key -> map(file));
+            }
+            ByteBuffer buffer;
+            try (InputStream stream = url.openStream()) {
+                buffer = ByteBuffer.wrap(stream.readAllBytes());
+            }
+            put(path, buffer);
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ByteBuffer map(Path file) {
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void put(String path, ByteBuffer buffer) {
+        int size = buffer.capacity();
+        if (size > CACHE_MAX_BYTES) {
+            return;
+        }
+        synchronized (CACHE) {
+            ByteBuffer previous = CACHE.put(path, buffer);
+            cachedBytes += size - (previous == null ? 0 : previous.capacity());
+            Iterator<ByteBuffer> eldest = CACHE.values().iterator();
+            while (cachedBytes > CACHE_MAX_BYTES && eldest.hasNext()) {
+                cachedBytes -= eldest.next().capacity();
+                eldest.remove();
+            }
+        }
     }
 }
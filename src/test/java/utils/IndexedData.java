@@ -0,0 +1,129 @@
+package utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+// Expected records indexed by key once, so each comparison against an actual list is a single O(n) pass
+public class IndexedData<K, V> {
+    private final Map<K, V> byKey;
+    private final Function<V, K> keyOf;
+
+    private IndexedData(Map<K, V> byKey, Function<V, K> keyOf) {
+        this.byKey = Collections.unmodifiableMap(byKey);
+        this.keyOf = keyOf;
+    }
+
+    public static <K, V> IndexedData<K, V> of(Collection<V> records, Function<V, K> keyOf) {
+        Map<K, V> byKey = new LinkedHashMap<>();
+        for (V record : records) {
+            if (byKey.put(keyOf.apply(record), record) != null) {
+                throw new IllegalArgumentException(String.format("Duplicate expected key %s", keyOf.apply(record)));
+            }
+        }
+        return new IndexedData<>(byKey, keyOf);
+    }
+
+    public V get(K key) {
+        return byKey.get(key);
+    }
+
+    public Collection<V> values() {
+        return byKey.values();
+    }
+
+    public int size() {
+        return byKey.size();
+    }
+
+    public Diff<V> diff(Collection<V> actual) {
+        Set<K> seen = new HashSet<>();
+        List<V> extra = new ArrayList<>();
+        List<Change<V>> changed = new ArrayList<>();
+        for (V record : actual) {
+            K key = keyOf.apply(record);
+            V expected = byKey.get(key);
+            // Unknown keys and repeats of a key already seen are both unexpected records
+            if (expected == null || !seen.add(key)) {
+                extra.add(record);
+            } else if (!Objects.equals(expected, record)) {
+                changed.add(new Change<>(expected, record));
+            }
+        }
+        List<V> missing = new ArrayList<>();
+        byKey.forEach((key, record) -> {
+            if (!seen.contains(key)) {
+                missing.add(record);
+            }
+        });
+        return new Diff<>(missing, extra, changed);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Diff<V> {
+        private final List<V> missing;
+        private final List<V> extra;
+        private final List<Change<V>> changed;
+
+        public boolean isEmpty() {
+            return missing.isEmpty() && extra.isEmpty() && changed.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Diff {missing: %s, extra: %s, changed: %s}", missing, extra, changed);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Change<V> {
+        private final V expected;
+        private final V actual;
+
+        // The records' own toString may leave out fields their equals compares, so the serialized fields that
+        // differ are listed too
+        @Override
+        public String toString() {
+            List<String> fields = new ArrayList<>();
+            differingFields().forEach((name, values) -> fields.add(name + ": " + values));
+            return String.format("%s -> %s {%s}", expected, actual, String.join(", ", fields));
+        }
+
+        public Map<String, String> differingFields() {
+            JsonNode expectedTree = JsonUtils.toTree(expected);
+            JsonNode actualTree = JsonUtils.toTree(actual);
+            Map<String, String> fields = new LinkedHashMap<>();
+            if (!expectedTree.isObject() || !actualTree.isObject()) {
+                if (!expectedTree.equals(actualTree)) {
+                    fields.put("value", expectedTree + " -> " + actualTree);
+                }
+                return fields;
+            }
+            Set<String> names = new LinkedHashSet<>();
+            expectedTree.fieldNames().forEachRemaining(names::add);
+            actualTree.fieldNames().forEachRemaining(names::add);
+            for (String name : names) {
+                JsonNode expectedField = expectedTree.get(name);
+                JsonNode actualField = actualTree.get(name);
+                if (!Objects.equals(expectedField, actualField)) {
+                    fields.put(name, expectedField + " -> " + actualField);
+                }
+            }
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package utils;
+
+import model.dto.country.Country;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+public class IndexedDataTest {
+    private static final IndexedData<String, Country> EXPECTED = IndexedData.of(List.of(
+            new Country("Viet Nam", "VN", 1.5f),
+            new Country("Japan", "JP", 4.2f)), Country::getCode);
+
+    @Test
+    void verifyMissingExtraAndDuplicateRecords() {
+        IndexedData.Diff<Country> diff = EXPECTED.diff(List.of(
+                new Country("Viet Nam", "VN", 1.5f),
+                new Country("Viet Nam", "VN", 1.5f),
+                new Country("France", "FR", 3.0f)));
+
+        assertThat(diff.getMissing(), contains(new Country("Japan", "JP", 4.2f)));
+        assertThat(diff.getExtra(), hasSize(2));
+        assertThat(diff.getChanged(), empty());
+    }
+
+    // Country.toString leaves gdp out, so without the differing fields both sides would print the same
+    @Test
+    void verifyChangeNamesTheFieldsThatDiffer() {
+        IndexedData.Diff<Country> diff = EXPECTED.diff(List.of(
+                new Country("Viet Nam", "VN", 2.5f),
+                new Country("Japan", "JP", 4.2f)));
+
+        assertThat(diff.getChanged(), hasSize(1));
+        IndexedData.Change<Country> change = diff.getChanged().get(0);
+        assertThat(change.differingFields(), equalTo(Map.of("gdp", "1.5 -> 2.5")));
+        assertThat(diff.toString(), containsString("{gdp: 1.5 -> 2.5}"));
+    }
+}
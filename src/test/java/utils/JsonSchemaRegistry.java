@@ -0,0 +1,134 @@
+package utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import io.restassured.response.Response;
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class JsonSchemaRegistry {
+    public static final String SCHEMA_DIR = "json-schema/";
+
+    private static final JsonSchemaFactory FACTORY = JsonSchemaFactory.byDefault();
+    private static final Map<String, JsonSchema> SCHEMAS = new ConcurrentHashMap<>();
+    private static final Map<String, ValidationStats> STATS = new ConcurrentHashMap<>();
+    private static final AtomicBoolean REPORT_REGISTERED = new AtomicBoolean();
+
+    private JsonSchemaRegistry() {
+    }
+
+    public static JsonSchema getSchema(String name) {
+        return SCHEMAS.computeIfAbsent(name, JsonSchemaRegistry::compile);
+    }
+
+    public static void preload(String... names) {
+        for (String name : names) {
+            getSchema(name);
+        }
+    }
+
+    public static ProcessingReport validate(String name, JsonNode body) {
+        JsonSchema schema = getSchema(name);
+        long start = System.nanoTime();
+        try {
+            return schema.validate(body);
+        } catch (ProcessingException e) {
+            throw new IllegalStateException(String.format("Cannot validate against schema %s", name), e);
+        } finally {
+            record(name, System.nanoTime() - start);
+        }
+    }
+
+    public static ProcessingReport validate(String name, byte[] body) {
+        return validate(name, JsonUtils.readTree(body));
+    }
+
+    // Parses the response bytes directly; then().body(matchesSchema(...)) first decodes the body to a String
+    public static ProcessingReport validate(String name, Response response) {
+        return validate(name, response.asByteArray());
+    }
+
+    public static void assertMatchesSchema(Response response, String name) {
+        ProcessingReport report = validate(name, response);
+        if (!report.isSuccess()) {
+            throw new AssertionError(String.format("Response does not match schema %s%s: %s", SCHEMA_DIR, name,
+                    report));
+        }
+    }
+
+    // Drop-in replacement for matchesJsonSchemaInClasspath("json-schema/<name>") in then().body(...) chains
+    public static Matcher<Object> matchesSchema(String name) {
+        getSchema(name);
+        return new BaseMatcher<>() {
+            private ProcessingReport report;
+
+            @Override
+            public boolean matches(Object actual) {
+                JsonNode body = actual instanceof byte[] bytes ? JsonUtils.readTree(bytes) : JsonUtils.readTree(String.valueOf(actual));
+                report = validate(name, body);
+                return report.isSuccess();
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("JSON matching schema ").appendValue(SCHEMA_DIR + name);
+            }
+
+            @Override
+            public void describeMismatch(Object item, Description description) {
+                description.appendText("validation failed: ").appendText(String.valueOf(report));
+            }
+        };
+    }
+
+    public static String describeStats() {
+        StringBuilder builder = new StringBuilder("JSON schema validation {");
+        new TreeMap<>(STATS).forEach((name, stats) -> builder.append(String.format(
+                "%n  %s: count=%d, avg=%.3fms, max=%.3fms", name, stats.count.sum(),
+                stats.totalNanos.sum() / 1e6 / Math.max(1, stats.count.sum()), stats.maxNanos.get() / 1e6)));
+        return builder.append(String.format("%n}")).toString();
+    }
+
+    private static JsonSchema compile(String name) {
+        try (InputStream stream = JsonSchemaRegistry.class.getClassLoader().getResourceAsStream(SCHEMA_DIR + name)) {
+            if (stream == null) {
+                throw new IllegalArgumentException(String.format("Schema %s%s not found on the classpath", SCHEMA_DIR, name));
+            }
+            return FACTORY.getJsonSchema(JsonUtils.readTree(stream));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ProcessingException e) {
+            throw new IllegalStateException(String.format("Schema %s%s is invalid", SCHEMA_DIR, name), e);
+        }
+    }
+
+    private static void record(String name, long nanos) {
+        ValidationStats stats = STATS.computeIfAbsent(name, key -> new ValidationStats());
+        stats.count.increment();
+        stats.totalNanos.add(nanos);
+        stats.maxNanos.accumulate(nanos);
+        if (REPORT_REGISTERED.compareAndSet(false, true)) {
+            RunLifecycleExtension.onRunEnd(() -> System.out.println(describeStats()));
+        }
+    }
+
+    private static class ValidationStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    }
+}
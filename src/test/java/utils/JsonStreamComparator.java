@@ -0,0 +1,582 @@
+package utils;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Compares two JSON documents while reading them, token by token, so memory does not grow with the payload:
+//   JsonStreamComparator.builder().ignoredPaths(USER_SERVER_FIELDS).build().assertEquals(expected, actual);
+// Ignored paths use the jsonEquals(...).whenIgnoringPaths(...) syntax, e.g. "id" or "addresses[*].id".
+// Objects whose keys come in a different order, and arrays compared ignoring order, are buffered for that
+// object or array only.
+// A comparator is immutable and meant to be built once, e.g. per DTO in ComparisonProfiles, and shared.
+public class JsonStreamComparator {
+    public static final int DEFAULT_MAX_DIFFERENCES = 10;
+
+    @Getter
+    private final List<String> ignoredPaths;
+    @Getter
+    private final boolean ignoringArrayOrder;
+    @Getter
+    private final int maxDifferences;
+    // Allowed absolute difference between numbers; null compares them exactly
+    @Getter
+    private final BigDecimal numericTolerance;
+    @Getter
+    private final Map<String, BigDecimal> tolerances;
+    // Checked against the actual value only, whether or not the expected document has the field; a field that
+    // neither object has is checked as null
+    @Getter
+    private final Map<String, Matcher<?>> fieldMatchers;
+    private final PathRules rules = new PathRules();
+
+    @Builder(toBuilder = true)
+    private JsonStreamComparator(@Singular List<String> ignoredPaths, boolean ignoringArrayOrder, int maxDifferences,
+                                 BigDecimal numericTolerance, @Singular Map<String, BigDecimal> tolerances,
+                                 @Singular Map<String, Matcher<?>> fieldMatchers) {
+        this.ignoredPaths = List.copyOf(ignoredPaths);
+        this.ignoringArrayOrder = ignoringArrayOrder;
+        this.maxDifferences = maxDifferences > 0 ? maxDifferences : DEFAULT_MAX_DIFFERENCES;
+        this.numericTolerance = numericTolerance;
+        this.tolerances = Map.copyOf(tolerances);
+        this.fieldMatchers = Map.copyOf(fieldMatchers);
+        ignoredPaths.forEach(rules::ignore);
+        tolerances.forEach(rules::tolerance);
+        fieldMatchers.forEach(rules::matcher);
+    }
+
+    public List<Difference> compare(InputStream expected, InputStream actual) {
+        try (JsonParser expectedParser = JsonUtils.createParser(expected);
+             JsonParser actualParser = JsonUtils.createParser(actual)) {
+            return compare(expectedParser, actualParser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public List<Difference> compare(InputStream expected, byte[] actual) {
+        try (JsonParser expectedParser = JsonUtils.createParser(expected);
+             JsonParser actualParser = JsonUtils.createParser(actual)) {
+            return compare(expectedParser, actualParser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // For objects such as DTOs and DAOs; they are written as tokens and never rendered as text
+    public List<Difference> compare(Object expected, Object actual) {
+        try (JsonParser expectedParser = JsonUtils.tokens(expected);
+             JsonParser actualParser = JsonUtils.tokens(actual)) {
+            return compare(expectedParser, actualParser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void assertEquals(InputStream expected, InputStream actual) {
+        fail(compare(expected, actual));
+    }
+
+    public void assertEquals(InputStream expected, byte[] actual) {
+        fail(compare(expected, actual));
+    }
+
+    // Drop-in replacement for jsonEquals(expected).whenIgnoringPaths(...) in assertThat(actual, ...)
+    public Matcher<Object> matches(Object expected) {
+        return new BaseMatcher<>() {
+            @Override
+            public boolean matches(Object actual) {
+                return compare(expected, actual).isEmpty();
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("JSON equal to ")
+                        .appendText(expected == null ? "null" : expected.getClass().getSimpleName());
+            }
+
+            @Override
+            public void describeMismatch(Object actual, Description description) {
+                description.appendText(format(compare(expected, actual)));
+            }
+        };
+    }
+
+    private void fail(List<Difference> differences) {
+        if (!differences.isEmpty()) {
+            throw new AssertionError(format(differences));
+        }
+    }
+
+    private String format(List<Difference> differences) {
+        StringBuilder message = new StringBuilder("JSON documents are different:");
+        for (Difference difference : differences) {
+            message.append(System.lineSeparator()).append(difference);
+        }
+        if (differences.size() >= maxDifferences) {
+            message.append(System.lineSeparator()).append(String.format("Stopped after %d differences", maxDifferences));
+        }
+        return message.toString();
+    }
+
+    private List<Difference> compare(JsonParser expected, JsonParser actual) throws IOException {
+        Comparison comparison = new Comparison(maxDifferences);
+        expected.nextToken();
+        actual.nextToken();
+        if (expected.currentToken() == null || actual.currentToken() == null) {
+            if (expected.currentToken() != actual.currentToken()) {
+                comparison.add(Kind.TYPE, describe(expected), describe(actual));
+            }
+            return comparison.differences;
+        }
+        comparison.value(expected, actual);
+        if (!comparison.full()) {
+            // Like jsonEquals, a body is one JSON value; anything after it is not ignored
+            String expectedRest = trailing(expected);
+            String actualRest = trailing(actual);
+            if (expectedRest != null || actualRest != null) {
+                comparison.add(Kind.TRAILING, Objects.requireNonNullElse(expectedRest, "<nothing>"),
+                        Objects.requireNonNullElse(actualRest, "<nothing>"));
+            }
+        }
+        return comparison.differences;
+    }
+
+    private static String trailing(JsonParser parser) throws IOException {
+        try {
+            return parser.nextToken() == null ? null : describe(parser);
+        } catch (JsonParseException e) {
+            return "<not JSON: " + e.getOriginalMessage() + ">";
+        }
+    }
+
+    private static String describe(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            return "<nothing>";
+        }
+        return switch (token) {
+            case START_OBJECT -> "{...}";
+            case START_ARRAY -> "[...]";
+            case VALUE_STRING -> '"' + parser.getText() + '"';
+            default -> parser.getText();
+        };
+    }
+
+    private static String summarize(JsonNode node) {
+        if (node == null) {
+            return "<nothing>";
+        }
+        if (node.isObject()) {
+            return "{...}";
+        }
+        if (node.isArray()) {
+            return "[...]";
+        }
+        return node.toString();
+    }
+
+    // What a field matcher sees: String, Number, Boolean or null, and a JsonNode for objects and arrays
+    private static Object unwrap(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isTextual()) {
+            return node.textValue();
+        }
+        if (node.isNumber()) {
+            return node.numberValue();
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue();
+        }
+        return node;
+    }
+
+    private static Category category(JsonToken token) {
+        return switch (token) {
+            case START_OBJECT -> Category.OBJECT;
+            case START_ARRAY -> Category.ARRAY;
+            case VALUE_STRING -> Category.STRING;
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> Category.NUMBER;
+            case VALUE_TRUE, VALUE_FALSE -> Category.BOOLEAN;
+            default -> Category.NULL;
+        };
+    }
+
+    private enum Category {
+        OBJECT, ARRAY, STRING, NUMBER, BOOLEAN, NULL
+    }
+
+    public enum Kind {
+        // Present only in the expected document
+        MISSING,
+        // Present only in the actual document
+        UNEXPECTED,
+        TYPE,
+        VALUE,
+        ARRAY_LENGTH,
+        // Rejected by a field matcher
+        MATCHER,
+        // Content after the root value, e.g. a second concatenated document
+        TRAILING
+    }
+
+    // Filled in by @Builder; its build() casts each tolerance to BigDecimal, which -Xlint:cast flags as redundant
+    @SuppressWarnings("cast")
+    public static class JsonStreamComparatorBuilder {
+    }
+
+    public record Difference(String path, Kind kind, String expected, String actual) {
+        @Override
+        public String toString() {
+            return String.format("%s: %s, expected %s but was %s", path, kind, expected, actual);
+        }
+    }
+
+    // One run over a pair of documents. The path is a stack of field names and indexes, and next to it the
+    // trie nodes that the path has reached so far.
+    private class Comparison {
+        private final int limit;
+        private final List<Difference> differences = new ArrayList<>();
+        private final List<Object> path = new ArrayList<>();
+        private final List<List<PathRules.Node>> reached = new ArrayList<>();
+
+        private Comparison(int limit) {
+            this.limit = limit;
+            reached.add(rules.root());
+        }
+
+        private boolean full() {
+            return differences.size() >= limit;
+        }
+
+        private void enter(Object segment) {
+            path.add(segment);
+            reached.add(PathRules.next(current(), segment));
+        }
+
+        private void leave() {
+            path.remove(path.size() - 1);
+            reached.remove(reached.size() - 1);
+        }
+
+        private List<PathRules.Node> current() {
+            return reached.get(reached.size() - 1);
+        }
+
+        // Both parsers are on the first token of a value and are left on its last token
+        private void value(JsonParser expected, JsonParser actual) throws IOException {
+            if (full()) {
+                return;
+            }
+            List<PathRules.Node> rules = current();
+            if (PathRules.Node.ignored(rules)) {
+                expected.skipChildren();
+                actual.skipChildren();
+                return;
+            }
+            Matcher<?> matcher = PathRules.Node.matcher(rules);
+            if (matcher != null) {
+                expected.skipChildren();
+                check(matcher, JsonUtils.readExactTree(actual));
+                return;
+            }
+            JsonToken expectedToken = expected.currentToken();
+            JsonToken actualToken = actual.currentToken();
+            Category category = category(expectedToken);
+            if (category != category(actualToken)) {
+                add(Kind.TYPE, describe(expected), describe(actual));
+                expected.skipChildren();
+                actual.skipChildren();
+                return;
+            }
+            switch (category) {
+                case OBJECT -> object(expected, actual);
+                case ARRAY -> {
+                    if (ignoringArrayOrder) {
+                        unorderedArray(expected, actual);
+                    } else {
+                        array(expected, actual);
+                    }
+                }
+                case NUMBER -> {
+                    if (!sameNumber(expected, actual, PathRules.Node.tolerance(rules))) {
+                        add(Kind.VALUE, describe(expected), describe(actual));
+                    }
+                }
+                case STRING -> {
+                    if (!expected.getText().equals(actual.getText())) {
+                        add(Kind.VALUE, describe(expected), describe(actual));
+                    }
+                }
+                default -> {
+                    if (expectedToken != actualToken) {
+                        add(Kind.VALUE, describe(expected), describe(actual));
+                    }
+                }
+            }
+        }
+
+        private void check(Matcher<?> matcher, JsonNode actual) {
+            if (!matcher.matches(unwrap(actual))) {
+                add(Kind.MATCHER, StringDescription.toString(matcher), summarize(actual));
+            }
+        }
+
+        private boolean sameNumber(JsonParser expected, JsonParser actual, BigDecimal pathTolerance)
+                throws IOException {
+            BigDecimal tolerance = pathTolerance != null ? pathTolerance : numericTolerance;
+            if (tolerance != null) {
+                return expected.getDecimalValue().subtract(actual.getDecimalValue()).abs().compareTo(tolerance) <= 0;
+            }
+            // Like jsonEquals, an integer and a decimal are never equal, and decimals differing in scale
+            // (1.0 and 1.00, 1e2 and 100.0) are not equal either
+            if (expected.currentToken() != actual.currentToken()) {
+                return false;
+            }
+            if (expected.currentToken() == JsonToken.VALUE_NUMBER_FLOAT) {
+                return expected.getDecimalValue().equals(actual.getDecimalValue());
+            }
+            if (expected.getNumberType() == JsonParser.NumberType.BIG_INTEGER
+                    || actual.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                return expected.getBigIntegerValue().equals(actual.getBigIntegerValue());
+            }
+            return expected.getLongValue() == actual.getLongValue();
+        }
+
+        private void object(JsonParser expected, JsonParser actual) throws IOException {
+            List<String> matchedFields = PathRules.Node.matchedFields(current());
+            // Only tracked when a matched field could be absent from both objects and would otherwise go unchecked
+            Set<String> seen = matchedFields.isEmpty() ? null : new HashSet<>();
+            while (!full()) {
+                JsonToken expectedToken = expected.nextToken();
+                JsonToken actualToken = actual.nextToken();
+                if (expectedToken == JsonToken.END_OBJECT && actualToken == JsonToken.END_OBJECT) {
+                    break;
+                }
+                if (expectedToken == JsonToken.FIELD_NAME && actualToken == JsonToken.FIELD_NAME
+                        && expected.currentName().equals(actual.currentName())) {
+                    if (seen != null) {
+                        seen.add(expected.currentName());
+                    }
+                    enter(expected.currentName());
+                    expected.nextToken();
+                    actual.nextToken();
+                    value(expected, actual);
+                    leave();
+                    continue;
+                }
+                // Keys diverge from here on, match the rest of this object by name
+                Map<String, JsonNode> expectedFields = remainingFields(expected);
+                Map<String, JsonNode> actualFields = remainingFields(actual);
+                if (seen != null) {
+                    seen.addAll(expectedFields.keySet());
+                    seen.addAll(actualFields.keySet());
+                }
+                unorderedFields(expectedFields, actualFields);
+                break;
+            }
+            if (seen != null) {
+                for (String field : matchedFields) {
+                    if (!full() && !seen.contains(field)) {
+                        enter(field);
+                        check(PathRules.Node.matcher(current()), null);
+                        leave();
+                    }
+                }
+            }
+        }
+
+        private Map<String, JsonNode> remainingFields(JsonParser parser) throws IOException {
+            Map<String, JsonNode> fields = new LinkedHashMap<>();
+            while (parser.currentToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                fields.put(name, JsonUtils.readExactTree(parser));
+                parser.nextToken();
+            }
+            return fields;
+        }
+
+        private void unorderedFields(Map<String, JsonNode> expected, Map<String, JsonNode> actual) throws IOException {
+            for (Map.Entry<String, JsonNode> field : expected.entrySet()) {
+                if (full()) {
+                    return;
+                }
+                enter(field.getKey());
+                JsonNode actualValue = actual.remove(field.getKey());
+                if (actualValue != null) {
+                    nodes(field.getValue(), actualValue);
+                } else {
+                    onlyOneSide(field.getValue(), null);
+                }
+                leave();
+            }
+            for (Map.Entry<String, JsonNode> field : actual.entrySet()) {
+                if (full()) {
+                    return;
+                }
+                enter(field.getKey());
+                onlyOneSide(null, field.getValue());
+                leave();
+            }
+        }
+
+        private void onlyOneSide(JsonNode expected, JsonNode actual) {
+            List<PathRules.Node> rules = current();
+            if (PathRules.Node.ignored(rules)) {
+                return;
+            }
+            Matcher<?> matcher = PathRules.Node.matcher(rules);
+            if (matcher != null) {
+                check(matcher, actual);
+            } else {
+                add(expected != null ? Kind.MISSING : Kind.UNEXPECTED, summarize(expected), summarize(actual));
+            }
+        }
+
+        private void nodes(JsonNode expected, JsonNode actual) throws IOException {
+            try (JsonParser expectedParser = JsonUtils.createParser(expected);
+                 JsonParser actualParser = JsonUtils.createParser(actual)) {
+                expectedParser.nextToken();
+                actualParser.nextToken();
+                value(expectedParser, actualParser);
+            }
+        }
+
+        private void array(JsonParser expected, JsonParser actual) throws IOException {
+            int index = 0;
+            while (!full()) {
+                JsonToken expectedToken = expected.nextToken();
+                JsonToken actualToken = actual.nextToken();
+                if (expectedToken == JsonToken.END_ARRAY || actualToken == JsonToken.END_ARRAY) {
+                    if (expectedToken != actualToken) {
+                        int expectedLength = index + remainingElements(expected);
+                        int actualLength = index + remainingElements(actual);
+                        add(Kind.ARRAY_LENGTH, String.valueOf(expectedLength), String.valueOf(actualLength));
+                    }
+                    return;
+                }
+                enter(index++);
+                value(expected, actual);
+                leave();
+            }
+        }
+
+        // Counts and skips what is left of an array, starting from the current token
+        private int remainingElements(JsonParser parser) throws IOException {
+            int count = 0;
+            while (parser.currentToken() != JsonToken.END_ARRAY) {
+                parser.skipChildren();
+                count++;
+                parser.nextToken();
+            }
+            return count;
+        }
+
+        private void unorderedArray(JsonParser expected, JsonParser actual) throws IOException {
+            List<JsonNode> expectedElements = elements(expected);
+            List<JsonNode> actualElements = elements(actual);
+            boolean[] matched = new boolean[actualElements.size()];
+            List<Integer> unmatched = new ArrayList<>();
+            for (int i = 0; i < expectedElements.size(); i++) {
+                enter(i);
+                int match = findMatch(expectedElements.get(i), actualElements, matched, i);
+                leave();
+                if (match < 0) {
+                    unmatched.add(i);
+                } else {
+                    matched[match] = true;
+                }
+            }
+            for (int i : unmatched) {
+                if (full()) {
+                    return;
+                }
+                enter(i);
+                add(Kind.MISSING, summarize(expectedElements.get(i)), "<nothing>");
+                leave();
+            }
+            for (int j = 0; j < matched.length && !full(); j++) {
+                if (!matched[j]) {
+                    enter(j);
+                    add(Kind.UNEXPECTED, "<nothing>", summarize(actualElements.get(j)));
+                    leave();
+                }
+            }
+        }
+
+        private List<JsonNode> elements(JsonParser parser) throws IOException {
+            List<JsonNode> elements = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                elements.add(JsonUtils.readExactTree(parser));
+            }
+            return elements;
+        }
+
+        // Tries the same position first, which is the common case when only a few elements moved
+        private int findMatch(JsonNode expected, List<JsonNode> actual, boolean[] matched, int index)
+                throws IOException {
+            if (index < actual.size() && !matched[index] && matches(expected, actual.get(index))) {
+                return index;
+            }
+            for (int j = 0; j < actual.size(); j++) {
+                if (j != index && !matched[j] && matches(expected, actual.get(j))) {
+                    return j;
+                }
+            }
+            return -1;
+        }
+
+        private boolean matches(JsonNode expected, JsonNode actual) throws IOException {
+            Comparison probe = new Comparison(1);
+            probe.path.addAll(path);
+            probe.reached.add(current());
+            probe.nodes(expected, actual);
+            return probe.differences.isEmpty();
+        }
+
+        private void add(Kind kind, String expected, String actual) {
+            differences.add(new Difference(formatPath(), kind, expected, actual));
+        }
+
+        private String formatPath() {
+            if (path.isEmpty()) {
+                return "$";
+            }
+            StringBuilder formatted = new StringBuilder();
+            for (Object segment : path) {
+                if (segment instanceof Integer) {
+                    formatted.append('[').append(segment).append(']');
+                } else {
+                    if (!formatted.isEmpty()) {
+                        formatted.append('.');
+                    }
+                    formatted.append(segment);
+                }
+            }
+            return formatted.toString();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package utils;
+
+import net.javacrumbs.jsonunit.core.Option;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static net.javacrumbs.jsonunit.JsonMatchers.jsonEquals;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Pins the streaming comparator to the verdicts of jsonEquals, which the tests used before it
+public class JsonStreamComparatorTest {
+    private static final JsonStreamComparator COMPARATOR = JsonStreamComparator.builder().build();
+
+    @Test
+    void verifyReorderedKeysAreEqual() {
+        String expected = "{\"id\":1,\"name\":\"Doe\",\"address\":{\"city\":\"HCM\",\"zip\":\"70000\"}}";
+        String actual = "{\"address\":{\"zip\":\"70000\",\"city\":\"HCM\"},\"name\":\"Doe\",\"id\":1}";
+
+        assertThat(actual, jsonEquals(expected));
+        assertThat(compare(COMPARATOR, expected, actual), empty());
+    }
+
+    @Test
+    void verifyMissingField() {
+        String expected = "{\"id\":1,\"name\":\"Doe\"}";
+        String actual = "{\"id\":1}";
+
+        assertThat(actual, not(jsonEquals(expected)));
+        assertThat(kinds(compare(COMPARATOR, expected, actual)), contains(JsonStreamComparator.Kind.MISSING));
+    }
+
+    @Test
+    void verifyExtraField() {
+        String expected = "{\"id\":1}";
+        String actual = "{\"id\":1,\"name\":\"Doe\"}";
+
+        assertThat(actual, not(jsonEquals(expected)));
+        assertThat(kinds(compare(COMPARATOR, expected, actual)), contains(JsonStreamComparator.Kind.UNEXPECTED));
+    }
+
+    @Test
+    void verifyIntegerAndDecimalAreDifferent() {
+        String expected = "{\"amount\":1}";
+        String actual = "{\"amount\":1.0}";
+
+        assertThat(actual, not(jsonEquals(expected)));
+        assertThat(compare(COMPARATOR, expected, actual), hasSize(1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1.0|1.00", "1e2|100.0", "0.5|0.50"})
+    void verifyDecimalsDifferingInScaleAreDifferent(String pair) {
+        String[] numbers = pair.split("\\|");
+        String expected = "{\"amount\":" + numbers[0] + "}";
+        String actual = "{\"amount\":" + numbers[1] + "}";
+
+        assertThat(actual, not(jsonEquals(expected)));
+        assertThat(kinds(compare(COMPARATOR, expected, actual)), contains(JsonStreamComparator.Kind.VALUE));
+    }
+
+    @Test
+    void verifyDecimalScaleIsKeptWhenIgnoringArrayOrder() {
+        String expected = "{\"amounts\":[1.0,{\"fee\":2.50}]}";
+        String actual = "{\"amounts\":[{\"fee\":2.50},1.00]}";
+        JsonStreamComparator ignoringOrder = JsonStreamComparator.builder().ignoringArrayOrder(true).build();
+
+        assertThat(actual, not(jsonEquals(expected).when(Option.IGNORING_ARRAY_ORDER)));
+        assertThat(compare(ignoringOrder, expected, actual), not(empty()));
+    }
+
+    @Test
+    void verifyContentAfterTheDocumentIsReported() {
+        String expected = "{\"codes\":[1]}";
+
+        assertThat(compare(COMPARATOR, expected, "{\"codes\":[1]}  \n"), empty());
+        // jsonEquals does not parse such a body at all
+        assertThrows(RuntimeException.class, () -> assertThat("{\"codes\":[1]} junk", jsonEquals(expected)));
+        assertThat(kinds(compare(COMPARATOR, expected, "{\"codes\":[1]} junk")),
+                contains(JsonStreamComparator.Kind.TRAILING));
+        assertThat(kinds(compare(COMPARATOR, expected, "{\"codes\":[1]}{\"codes\":[2]}")),
+                contains(JsonStreamComparator.Kind.TRAILING));
+    }
+
+    @Test
+    void verifyArrayLengthMismatch() {
+        String expected = "{\"codes\":[\"VN\",\"US\",\"JP\"]}";
+        String actual = "{\"codes\":[\"VN\",\"US\"]}";
+
+        assertThat(actual, not(jsonEquals(expected)));
+        assertThat(kinds(compare(COMPARATOR, expected, actual)), contains(JsonStreamComparator.Kind.ARRAY_LENGTH));
+    }
+
+    @Test
+    void verifyIgnoringArrayOrder() {
+        String expected = "{\"codes\":[\"VN\",\"US\",{\"code\":\"JP\"}]}";
+        String actual = "{\"codes\":[{\"code\":\"JP\"},\"VN\",\"US\"]}";
+        JsonStreamComparator ignoringOrder = JsonStreamComparator.builder().ignoringArrayOrder(true).build();
+
+        assertThat(actual, not(jsonEquals(expected)));
+        assertThat(compare(COMPARATOR, expected, actual), not(empty()));
+        assertThat(actual, jsonEquals(expected).when(Option.IGNORING_ARRAY_ORDER));
+        assertThat(compare(ignoringOrder, expected, actual), empty());
+    }
+
+    @Test
+    void verifyIgnoredPaths() {
+        String expected = "{\"id\":1,\"addresses\":[{\"id\":10,\"city\":\"HCM\"}]}";
+        String actual = "{\"id\":2,\"addresses\":[{\"id\":20,\"city\":\"HCM\"}]}";
+        JsonStreamComparator ignoringIds = JsonStreamComparator.builder()
+                .ignoredPath("id")
+                .ignoredPath("addresses[*].id")
+                .build();
+
+        assertThat(actual, jsonEquals(expected).whenIgnoringPaths("id", "addresses[*].id"));
+        assertThat(compare(ignoringIds, expected, actual), empty());
+    }
+
+    @Test
+    void verifyComparisonStopsAtMaxDifferences() {
+        String expected = "{\"a\":1,\"b\":2,\"c\":3,\"d\":4,\"e\":5}";
+        String actual = "{\"a\":0,\"b\":0,\"c\":0,\"d\":0,\"e\":0}";
+        JsonStreamComparator comparator = JsonStreamComparator.builder().maxDifferences(2).build();
+
+        assertThat(actual, not(jsonEquals(expected)));
+        List<JsonStreamComparator.Difference> differences = compare(comparator, expected, actual);
+        assertThat(differences, hasSize(2));
+        assertThat(differences.get(0).path(), equalTo("a"));
+        assertThat(differences.get(1).path(), equalTo("b"));
+    }
+
+    private static List<JsonStreamComparator.Difference> compare(JsonStreamComparator comparator, String expected,
+                                                                 String actual) {
+        return comparator.compare(new ByteArrayInputStream(expected.getBytes(StandardCharsets.UTF_8)),
+                actual.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<JsonStreamComparator.Kind> kinds(List<JsonStreamComparator.Difference> differences) {
+        return differences.stream().map(JsonStreamComparator.Difference::kind).toList();
+    }
+}
@@ -0,0 +1,147 @@
+package utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.restassured.response.Response;
+import model.dto.country.Country;
+import model.dto.country.CountryPagination;
+import model.dto.login.LoginResponse;
+import model.dto.user.GetUserResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class JsonUtils {
+    // Configured once and never handed out, so nothing can reconfigure it while other threads use it;
+    // callers get immutable readers and writers instead
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader TREE_READER = MAPPER.readerFor(JsonNode.class);
+    private static final ObjectReader EXACT_TREE_READER = TREE_READER
+            .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .without(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES);
+    private static final ObjectWriter WRITER = MAPPER.writer();
+    private static final ObjectWriter PRETTY_WRITER = MAPPER.writerWithDefaultPrettyPrinter();
+
+    private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectReader> LIST_READERS = new ConcurrentHashMap<>();
+
+    static {
+        for (Class<?> type : List.of(Country.class, CountryPagination.class, GetUserResponse.class, LoginResponse.class)) {
+            reader(type);
+        }
+        listReader(Country.class);
+    }
+
+    private JsonUtils() {
+    }
+
+    public static ObjectReader reader(Class<?> type) {
+        return READERS.computeIfAbsent(type, MAPPER::readerFor);
+    }
+
+    public static ObjectReader listReader(Class<?> elementType) {
+        return LIST_READERS.computeIfAbsent(elementType, MAPPER::readerForListOf);
+    }
+
+    public static ObjectWriter writer() {
+        return WRITER;
+    }
+
+    public static ObjectWriter prettyWriter() {
+        return PRETTY_WRITER;
+    }
+
+    // Parsers from the shared mapper, so readValueAsTree() works on them
+    public static JsonParser createParser(byte[] json) throws IOException {
+        return MAPPER.createParser(json);
+    }
+
+    public static JsonParser createParser(InputStream json) throws IOException {
+        return MAPPER.createParser(json);
+    }
+
+    public static JsonParser createParser(JsonNode node) {
+        return node.traverse(MAPPER);
+    }
+
+    // The tokens value serializes to, e.g. a DTO, without rendering them as text
+    public static JsonParser tokens(Object value) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(MAPPER, false);
+        MAPPER.writeValue(buffer, value);
+        return buffer.asParser(MAPPER);
+    }
+
+    public static JsonNode readTree(byte[] json) {
+        try {
+            return TREE_READER.readTree(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static JsonNode readTree(String json) {
+        try {
+            return TREE_READER.readTree(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static JsonNode readTree(InputStream json) {
+        try {
+            return TREE_READER.readTree(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The value as it would be serialized, e.g. to compare two DTOs field by field
+    public static JsonNode toTree(Object value) {
+        return MAPPER.valueToTree(value);
+    }
+
+    // The value at the parser as a tree whose decimals keep their text's scale, so 1.0 and 1.00 stay apart
+    public static JsonNode readExactTree(JsonParser parser) throws IOException {
+        return EXACT_TREE_READER.readTree(parser);
+    }
+
+    // RestAssured serializes bodies and maps responses with the mapper itself, see HttpClientUtils
+    static ObjectMapper restAssuredMapper() {
+        return MAPPER;
+    }
+
+    // RestAssured keeps the body as bytes, so parsing them directly skips the String copy of body().as(...)
+    public static <T> T read(Response response, Class<T> type) {
+        return read(reader(type), response.asByteArray());
+    }
+
+    public static <T> List<T> readList(Response response, Class<T> elementType) {
+        return read(listReader(elementType), response.asByteArray());
+    }
+
+    public static <T> List<T> readList(String json, Class<T> elementType) {
+        try {
+            return listReader(elementType).readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> T read(ObjectReader reader, byte[] body) {
+        try {
+            return reader.readValue(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Checked by LatencySloExtension after the last test of the class, over every call the class made to the endpoint,
+// e.g. @LatencyBudget(endpoint = "GET_COUNTRY_API", percentile = 95, lessThanMillis = 50)
+// That includes calls from @BeforeAll and @AfterAll methods. Calls made on threads of the test's own pools count
+// only when the task enters LatencySlo.current(), as ConcurrentRows and UserCleanupRegistry do.
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Repeatable(LatencyBudget.List.class)
+public @interface LatencyBudget {
+    // Endpoint name as reported by TimingFilter: the ConstantUtils constant, or "METHOD template"
+    String endpoint();
+
+    double percentile() default 95;
+
+    long lessThanMillis();
+
+    int minSamples() default 1;
+
+    @Inherited
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    @interface List {
+        LatencyBudget[] value();
+    }
+}
@@ -0,0 +1,217 @@
+package utils;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Latency budgets that hold over a whole test class rather than a single call:
+//   response.then().time(LatencySlo.p95("GET_COUNTRY_API").lessThan(50, TimeUnit.MILLISECONDS));
+// Inside a class run by LatencySloExtension each call only adds a sample and the budget is checked after the
+// last test of the class. Outside of it the single call is checked right away.
+public class LatencySlo {
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private LatencySlo() {
+    }
+
+    public static Budget p50(String endpoint) {
+        return percentile(50, endpoint);
+    }
+
+    public static Budget p90(String endpoint) {
+        return percentile(90, endpoint);
+    }
+
+    public static Budget p95(String endpoint) {
+        return percentile(95, endpoint);
+    }
+
+    public static Budget p99(String endpoint) {
+        return percentile(99, endpoint);
+    }
+
+    public static Budget percentile(double percentile, String endpoint) {
+        return new Budget(endpoint, percentile);
+    }
+
+    public static Scope current() {
+        return CURRENT.get();
+    }
+
+    public static void enter(Scope scope) {
+        CURRENT.set(scope);
+    }
+
+    public static void exit() {
+        CURRENT.remove();
+    }
+
+    // Adds what another thread recorded into a private scope, e.g. a request prefetched by ConcurrentRows
+    public static void absorb(Scope recorded) {
+        Scope scope = CURRENT.get();
+        if (scope != null && recorded != null) {
+            recorded.endpoints.forEach((endpoint, histogram) -> scope.endpoints.computeIfAbsent(endpoint,
+                    key -> new ConcurrentHistogram(SIGNIFICANT_DIGITS)).add(histogram));
+        }
+    }
+
+    static void record(String endpoint, long nanos) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.endpoints.computeIfAbsent(endpoint, key -> new ConcurrentHistogram(SIGNIFICANT_DIGITS))
+                    .recordValue(nanos / 1_000);
+        }
+    }
+
+    private static String describe(String endpoint, double percentile, long lessThanMicros) {
+        return String.format("p%s of %s < %sms", formatPercentile(percentile), endpoint, lessThanMicros / 1000.0);
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+
+    public static class Budget {
+        private final String endpoint;
+        private final double percentile;
+
+        private Budget(String endpoint, double percentile) {
+            if (percentile <= 0 || percentile > 100) {
+                throw new IllegalArgumentException(String.format("Percentile %s is not within (0, 100]", percentile));
+            }
+            this.endpoint = endpoint;
+            this.percentile = percentile;
+        }
+
+        // For ValidatableResponse.time(Matcher), which reports milliseconds
+        public Matcher<Long> lessThan(long amount, TimeUnit unit) {
+            long lessThanMicros = unit.toMicros(amount);
+            BudgetKey key = new BudgetKey(Source.INLINE, endpoint, percentile, lessThanMicros, 1);
+            String description = describe(endpoint, percentile, lessThanMicros);
+            return new BaseMatcher<>() {
+                @Override
+                public boolean matches(Object actual) {
+                    long micros = TimeUnit.MILLISECONDS.toMicros(((Number) actual).longValue());
+                    Scope scope = CURRENT.get();
+                    if (scope == null) {
+                        return micros < lessThanMicros;
+                    }
+                    scope.declared(key).recordValue(micros);
+                    return true;
+                }
+
+                @Override
+                public void describeTo(Description matcherDescription) {
+                    matcherDescription.appendText(description);
+                }
+            };
+        }
+
+        public Matcher<Long> lessThanMillis(long millis) {
+            return lessThan(millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public static class Scope {
+        private final String name;
+        private final long startedNanos = System.nanoTime();
+        // Fed by TimingFilter for every call made while the scope is active
+        private final Map<String, Histogram> endpoints = new ConcurrentHashMap<>();
+        private final Map<BudgetKey, DeclaredBudget> budgets = new ConcurrentHashMap<>();
+
+        public Scope(String name) {
+            this.name = name;
+        }
+
+        public void declare(String endpoint, double percentile, long lessThanMillis, int minSamples) {
+            declared(new BudgetKey(Source.ANNOTATION, endpoint, percentile,
+                    TimeUnit.MILLISECONDS.toMicros(lessThanMillis), minSamples));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getElapsedNanos() {
+            return System.nanoTime() - startedNanos;
+        }
+
+        public Map<String, Histogram> getEndpointHistograms() {
+            Map<String, Histogram> copy = new HashMap<>();
+            endpoints.forEach((endpoint, histogram) -> copy.put(endpoint, histogram.copy()));
+            return copy;
+        }
+
+        public void verify() {
+            List<String> violations = new ArrayList<>();
+            budgets.forEach((key, budget) -> {
+                String description = key.describe();
+                Histogram histogram = budget.samples != null ? budget.samples : endpoints.get(key.endpoint);
+                long count = histogram == null ? 0 : histogram.getTotalCount();
+                if (count < key.minSamples) {
+                    violations.add(String.format("%s: only %d of %d required samples were recorded", description,
+                            count, key.minSamples));
+                    return;
+                }
+                long actual = histogram.getValueAtPercentile(key.percentile);
+                if (actual >= key.lessThanMicros) {
+                    violations.add(String.format("%s: was %sms over %d samples%n%s", description, actual / 1000.0,
+                            count, distribution(histogram)));
+                }
+            });
+            if (!violations.isEmpty()) {
+                throw new AssertionError(String.format("Latency budgets of %s exceeded:%n%s", name,
+                        String.join(System.lineSeparator(), violations)));
+            }
+        }
+
+        private Histogram declared(BudgetKey key) {
+            return budgets.computeIfAbsent(key, declared -> new DeclaredBudget(
+                    declared.source == Source.INLINE ? new ConcurrentHistogram(SIGNIFICANT_DIGITS) : null)).samples;
+        }
+
+        private static String distribution(Histogram histogram) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            // Recorded in microseconds, printed in milliseconds
+            histogram.outputPercentileDistribution(new PrintStream(out, true, StandardCharsets.UTF_8), 2, 1000.0);
+            return out.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private enum Source {
+        // @LatencyBudget on the class, checked against every call TimingFilter recorded for the endpoint
+        ANNOTATION("@LatencyBudget"),
+        // then().time(...) in a test, checked against the calls that went through that matcher only
+        INLINE("then().time");
+
+        private final String label;
+
+        Source(String label) {
+            this.label = label;
+        }
+    }
+
+    // The same limits declared both ways check different samples, so the source is part of the key
+    private record BudgetKey(Source source, String endpoint, double percentile, long lessThanMicros, int minSamples) {
+        String describe() {
+            return String.format("%s (%s)", LatencySlo.describe(endpoint, percentile, lessThanMicros), source.label);
+        }
+    }
+
+    // samples is null for annotation budgets, which read the endpoint histogram instead
+    private record DeclaredBudget(Histogram samples) {
+    }
+}
@@ -0,0 +1,62 @@
+package utils;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+// Collects the latencies of one test class, across all of its methods and parameterized invocations, and
+// fails the class when a @LatencyBudget or an inline LatencySlo budget is exceeded
+public class LatencySloExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback, AfterAllCallback {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(LatencySloExtension.class);
+    private static final String PREVIOUS_SCOPE = "previousScope";
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        LatencySlo.Scope scope = new LatencySlo.Scope(context.getDisplayName());
+        AnnotationSupport.findRepeatableAnnotations(context.getRequiredTestClass(), LatencyBudget.class)
+                .forEach(budget -> scope.declare(budget.endpoint(), budget.percentile(), budget.lessThanMillis(),
+                        budget.minSamples()));
+        context.getStore(NAMESPACE).put(LatencySlo.Scope.class, scope);
+        LatencySlo.enter(scope);
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        // Test methods may run on other threads than the class callbacks when executing in parallel, and a worker
+        // thread may run this test while it waits on another class, so whatever scope it had is put back afterwards
+        LatencySlo.Scope previous = LatencySlo.current();
+        if (previous != null) {
+            context.getStore(NAMESPACE).put(PREVIOUS_SCOPE, previous);
+        }
+        LatencySlo.enter(scope(context));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        // Keeps the class scope open on the class thread, so calls made by @AfterAll methods, which run before
+        // afterAll, still count
+        LatencySlo.Scope previous = context.getStore(NAMESPACE).remove(PREVIOUS_SCOPE, LatencySlo.Scope.class);
+        if (previous != null) {
+            LatencySlo.enter(previous);
+        } else {
+            LatencySlo.exit();
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        LatencySlo.exit();
+        LatencySlo.Scope scope = scope(context);
+        if (scope != null) {
+            PerformanceBaseline.recordTest(scope.getName(), scope.getEndpointHistograms(), scope.getElapsedNanos());
+            scope.verify();
+        }
+    }
+
+    private static LatencySlo.Scope scope(ExtensionContext context) {
+        return context.getStore(NAMESPACE).get(LatencySlo.Scope.class, LatencySlo.Scope.class);
+    }
+}
@@ -0,0 +1,88 @@
+package utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.util.Iterator;
+
+// One-sided Mann-Whitney U test on two latency histograms: is the candidate stochastically slower than the
+// baseline? Every histogram bucket is one tie group, so the ranks are computed without expanding the samples.
+public class MannWhitney {
+
+    private MannWhitney() {
+    }
+
+    public static Result candidateSlower(Histogram candidate, Histogram baseline) {
+        double candidateCount = candidate.getTotalCount();
+        double baselineCount = baseline.getTotalCount();
+        double total = candidateCount + baselineCount;
+        double candidateRankSum = 0;
+        double tieCorrection = 0;
+        double ranked = 0;
+
+        Iterator<HistogramIterationValue> candidateValues = candidate.recordedValues().iterator();
+        Iterator<HistogramIterationValue> baselineValues = baseline.recordedValues().iterator();
+        HistogramIterationValue nextCandidate = next(candidateValues);
+        HistogramIterationValue nextBaseline = next(baselineValues);
+        while (nextCandidate != null || nextBaseline != null) {
+            long value = Math.min(valueOf(nextCandidate), valueOf(nextBaseline));
+            double fromCandidate = 0;
+            double fromBaseline = 0;
+            if (nextCandidate != null && nextCandidate.getValueIteratedTo() == value) {
+                fromCandidate = nextCandidate.getCountAtValueIteratedTo();
+                nextCandidate = next(candidateValues);
+            }
+            if (nextBaseline != null && nextBaseline.getValueIteratedTo() == value) {
+                fromBaseline = nextBaseline.getCountAtValueIteratedTo();
+                nextBaseline = next(baselineValues);
+            }
+            double ties = fromCandidate + fromBaseline;
+            double averageRank = ranked + (ties + 1) / 2;
+            candidateRankSum += fromCandidate * averageRank;
+            tieCorrection += ties * ties * ties - ties;
+            ranked += ties;
+        }
+
+        double u = candidateRankSum - candidateCount * (candidateCount + 1) / 2;
+        double mean = candidateCount * baselineCount / 2;
+        double variance = candidateCount * baselineCount / 12 * ((total + 1) - tieCorrection / (total * (total - 1)));
+        // All samples tied: no evidence either way
+        double z = variance > 0 ? (u - mean) / Math.sqrt(variance) : 0;
+        return new Result(u, z, 1 - standardNormalCdf(z), u / (candidateCount * baselineCount));
+    }
+
+    private static HistogramIterationValue next(Iterator<HistogramIterationValue> values) {
+        // Each iterator reuses one mutable instance; a value is always consumed before its iterator advances
+        return values.hasNext() ? values.next() : null;
+    }
+
+    private static long valueOf(HistogramIterationValue value) {
+        return value == null ? Long.MAX_VALUE : value.getValueIteratedTo();
+    }
+
+    private static double standardNormalCdf(double z) {
+        return 0.5 * erfc(-z / Math.sqrt(2));
+    }
+
+    // Numerical Recipes erfc, fractional error below 1.2e-7
+    private static double erfc(double x) {
+        double t = 1 / (1 + 0.5 * Math.abs(x));
+        double y = t * Math.exp(-x * x - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+        return x >= 0 ? y : 2 - y;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final double u;
+        private final double z;
+        // Probability of a difference at least this large if the candidate were not slower
+        private final double pValue;
+        // Probability that a random candidate sample is slower than a random baseline sample
+        private final double effectSize;
+    }
+}
@@ -0,0 +1,90 @@
+package utils;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.http.DelayDistribution;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.http.LogNormal;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.http.UniformDistribution;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// How a mock server degrades the stubs it serves: added latency, a slowly dribbled body, error responses
+// and broken connections. Rates are fractions of requests between 0 and 1.
+@Getter
+@Builder(toBuilder = true)
+public class MockProfile {
+    public static final MockProfile NONE = MockProfile.builder().name("none").build();
+    public static final MockProfile SLOW = MockProfile.builder().name("slow").fixedDelayMs(500).build();
+    public static final MockProfile JITTERY = MockProfile.builder().name("jittery")
+            .randomDelay(new UniformDistribution(20, 300)).build();
+    // Median 80ms with a long tail, close to what a remote dependency looks like
+    public static final MockProfile REALISTIC = MockProfile.builder().name("realistic")
+            .randomDelay(new LogNormal(80, 0.6)).build();
+    public static final MockProfile DRIBBLE = MockProfile.builder().name("dribble")
+            .dribbleChunks(5).dribbleDurationMs(1_500).build();
+    public static final MockProfile FLAKY = MockProfile.builder().name("flaky")
+            .randomDelay(new LogNormal(80, 0.6)).errorRate(0.05).build();
+    public static final MockProfile BROKEN = MockProfile.builder().name("broken")
+            .errorRate(0.2).errorStatus(500).faultRate(0.05).build();
+    // Longer than the default read timeout of HttpClientUtils
+    public static final MockProfile TIMEOUT = MockProfile.builder().name("timeout").fixedDelayMs(35_000).build();
+
+    private static final Map<String, MockProfile> NAMED = Map.of(
+            NONE.name, NONE, SLOW.name, SLOW, JITTERY.name, JITTERY, REALISTIC.name, REALISTIC,
+            DRIBBLE.name, DRIBBLE, FLAKY.name, FLAKY, BROKEN.name, BROKEN, TIMEOUT.name, TIMEOUT);
+
+    private final String name;
+    private final Integer fixedDelayMs;
+    private final DelayDistribution randomDelay;
+    private final Integer dribbleChunks;
+    private final Integer dribbleDurationMs;
+    private final double errorRate;
+    @Builder.Default
+    private final int errorStatus = 503;
+    private final double faultRate;
+    @Builder.Default
+    private final Fault fault = Fault.CONNECTION_RESET_BY_PEER;
+
+    public static MockProfile named(String name) {
+        MockProfile profile = NAMED.get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException(String.format("Unknown mock profile '%s', expected one of %s",
+                    name, NAMED.keySet()));
+        }
+        return profile;
+    }
+
+    public ResponseDefinition apply(ResponseDefinition response) {
+        if (this == NONE) {
+            return response;
+        }
+        ResponseDefinitionBuilder builder = ResponseDefinitionBuilder.like(response);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double roll = random.nextDouble();
+        if (roll < faultRate) {
+            return builder.withFault(fault).build();
+        }
+        if (roll < faultRate + errorRate) {
+            builder.withStatus(errorStatus).withBody(String.format("{\"message\":\"Injected by mock profile %s\"}", name));
+        }
+        if (fixedDelayMs != null) {
+            builder.withFixedDelay(fixedDelayMs);
+        }
+        if (randomDelay != null) {
+            builder.withRandomDelay(randomDelay);
+        }
+        if (dribbleChunks != null && dribbleDurationMs != null) {
+            builder.withChunkedDribbleDelay(dribbleChunks, dribbleDurationMs);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
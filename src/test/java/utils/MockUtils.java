@@ -2,37 +2,349 @@ package utils;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.common.Timing;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import lombok.Getter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 
+// Manages any number of named WireMock instances. Each instance serves one of the mapping sets under mock/,
+// on a fixed port (the API under test is configured with 7777/7778) or a dynamic one for extra instances.
 @Getter
 public class MockUtils {
-    private static WireMockServer refDataServer;
-    private static WireMockServer buildCardServer;
+    public static final String REF_DATA = "ref-data";
+    public static final String BUILD_CARD = "build-card";
+    public static final int REF_DATA_PORT = Integer.getInteger("mock.refData.port", 7777);
+    public static final int BUILD_CARD_PORT = Integer.getInteger("mock.buildCard.port", 7778);
+    public static final int CONTAINER_THREADS = Integer.getInteger("mock.containerThreads", 32);
+    public static final boolean VERBOSE = Boolean.getBoolean("mock.verbose");
+    public static final boolean JOURNAL_ENABLED = Boolean.getBoolean("mock.journal");
+    // Point this at src/test/resources/mock to serve mappings straight from the sources, so edits need no rebuild
+    public static final String MOCK_ROOT = System.getProperty("mock.root");
+    public static final boolean WATCH_MAPPINGS = Boolean.getBoolean("mock.watch");
+    // Delayed responses are finished on this pool instead of holding a container thread for the whole delay
+    public static final int ASYNC_RESPONSE_THREADS = Integer.getInteger("mock.asyncThreads", 16);
+    public static final MockProfile DEFAULT_PROFILE = MockProfile.named(System.getProperty("mock.profile", "none"));
+
+    private static final String CLASSPATH_ROOT = "mock";
+    private static final String UNMATCHED = "<unmatched>";
+
+    private static final Map<String, MockInstance> INSTANCES = new ConcurrentHashMap<>();
+    private static WatchService watchService;
+
+    public static synchronized void startRefDataServer() {
+        start(REF_DATA, REF_DATA, REF_DATA_PORT);
+    }
+
+    public static synchronized void startBuildCardServer() {
+        start(BUILD_CARD, BUILD_CARD, BUILD_CARD_PORT);
+    }
+
+    public static synchronized void startAllMockServer() {
+        startRefDataServer();
+        startBuildCardServer();
+    }
 
-    private static WireMockServer startServer(WireMockServer server, int port, String path) {
-        if (server == null) {
-            server = new WireMockServer(options().port(port)
-                    .notifier(new ConsoleNotifier(true))
-                    .usingFilesUnderClasspath(path));
+    // Starts an extra instance of a mapping set on a free port; use getBaseUrl to reach it
+    public static WireMockServer startDynamic(String instance, String mappingSet) {
+        return start(instance, mappingSet, 0);
+    }
+
+    public static synchronized WireMockServer start(String instance, String mappingSet, int port) {
+        MockInstance existing = INSTANCES.get(instance);
+        if (existing != null) {
+            if (!existing.server.isRunning()) {
+                existing.server.start();
+            }
+            return existing.server;
+        }
+        if (INSTANCES.isEmpty()) {
+            RunLifecycleExtension.onRunEnd(MockUtils::stopAll);
         }
-        if (!server.isRunning()) {
-            server.start();
+
+        StubStatsListener listener = new StubStatsListener();
+        ProfileTransformer transformer = new ProfileTransformer();
+        WireMockConfiguration options = farmOptions(port).extensions(listener, transformer);
+        if (MOCK_ROOT != null) {
+            options.usingFilesUnderDirectory(Path.of(MOCK_ROOT, mappingSet).toString());
+        } else {
+            options.usingFilesUnderClasspath(CLASSPATH_ROOT + "/" + mappingSet);
+        }
+        WireMockServer server = new WireMockServer(options);
+        server.start();
+        MockInstance mockInstance = new MockInstance(mappingSet, server, listener, transformer);
+        INSTANCES.put(instance, mockInstance);
+        if (WATCH_MAPPINGS) {
+            watch(instance, mockInstance);
         }
         return server;
     }
 
-    public static void startRefDataServer() {
-        refDataServer = startServer(refDataServer, 7777, "mock/ref-data");
+    // Shared tuning for every stub server in the suite: bounded container threads, quiet notifier and no
+    // request journal, which otherwise grows with every request of a load run
+    public static WireMockConfiguration farmOptions(int port) {
+        WireMockConfiguration options = options()
+                .containerThreads(CONTAINER_THREADS)
+                .notifier(new ConsoleNotifier(VERBOSE))
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(ASYNC_RESPONSE_THREADS);
+        if (port == 0) {
+            options.dynamicPort();
+        } else {
+            options.port(port);
+        }
+        if (!JOURNAL_ENABLED) {
+            options.disableRequestJournal();
+        }
+        return options;
     }
 
-    public static void startBuildCardServer() {
-        buildCardServer = startServer(buildCardServer, 7778, "mock/build-card");
+    public static WireMockServer getServer(String instance) {
+        return getInstance(instance).server;
     }
 
-    public static void startAllMockServer() {
-        startRefDataServer();
-        startBuildCardServer();
+    public static String getBaseUrl(String instance) {
+        return getServer(instance).baseUrl();
+    }
+
+    // Re-reads the mapping files without restarting the server; stubs added from code are dropped
+    public static void reload(String instance) {
+        getServer(instance).resetToDefaultMappings();
+    }
+
+    public static void reloadAll() {
+        INSTANCES.keySet().forEach(MockUtils::reload);
+    }
+
+    // Applies to every stub of the instance from the next request on
+    public static void useProfile(String instance, MockProfile profile) {
+        getInstance(instance).transformer.profile = profile;
+    }
+
+    public static void useProfile(MockProfile profile) {
+        INSTANCES.values().forEach(mockInstance -> mockInstance.transformer.profile = profile);
+    }
+
+    public static void useProfile(String profileName) {
+        useProfile(MockProfile.named(profileName));
+    }
+
+    public static void resetProfiles() {
+        useProfile(DEFAULT_PROFILE);
+    }
+
+    public static MockProfile getProfile(String instance) {
+        return getInstance(instance).transformer.profile;
+    }
+
+    public static Map<String, StubStats> getStats(String instance) {
+        MockInstance mockInstance = INSTANCES.get(instance);
+        return mockInstance == null ? Map.of() : Collections.unmodifiableMap(mockInstance.listener.stats);
+    }
+
+    public static void resetStats() {
+        INSTANCES.values().forEach(mockInstance -> mockInstance.listener.stats.clear());
+    }
+
+    public static String describeStats() {
+        StringBuilder builder = new StringBuilder("Mock servers {");
+        new TreeMap<>(INSTANCES).forEach((instance, mockInstance) -> {
+            builder.append(String.format("%n  %s (port %d, profile %s):", instance, mockInstance.server.port(),
+                    mockInstance.transformer.profile));
+            new TreeMap<>(mockInstance.listener.stats).forEach((stub, stats) -> builder.append(
+                    String.format("%n    %s: %s", stub, stats)));
+        });
+        return builder.append(String.format("%n}")).toString();
+    }
+
+    public static synchronized void stopAll() {
+        if (INSTANCES.values().stream().anyMatch(mockInstance -> !mockInstance.listener.stats.isEmpty())) {
+            System.out.println(describeStats());
+        }
+        INSTANCES.values().forEach(mockInstance -> mockInstance.server.stop());
+        INSTANCES.clear();
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                System.err.printf("Could not close the mock mapping watcher: %s%n", e);
+            }
+            watchService = null;
+        }
+    }
+
+    private static MockInstance getInstance(String instance) {
+        MockInstance mockInstance = INSTANCES.get(instance);
+        if (mockInstance == null) {
+            throw new IllegalStateException(String.format("Mock server '%s' has not been started", instance));
+        }
+        return mockInstance;
+    }
+
+    private static void watch(String instance, MockInstance mockInstance) {
+        Path mappings = resolveMappingsDirectory(mockInstance.mappingSet);
+        if (mappings == null) {
+            System.err.printf("Mappings of mock server '%s' are not on the file system, hot reload disabled%n", instance);
+            return;
+        }
+        try {
+            if (watchService == null) {
+                watchService = FileSystems.getDefault().newWatchService();
+                Thread watcher = new Thread(() -> pollWatchEvents(watchService), "mock-mapping-watcher");
+                watcher.setDaemon(true);
+                watcher.start();
+            }
+            mappings.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void pollWatchEvents(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                // Editors often write a file in several steps; let them settle before reloading once
+                TimeUnit.MILLISECONDS.sleep(200);
+                key.pollEvents();
+                Path changed = (Path) key.watchable();
+                INSTANCES.forEach((instance, mockInstance) -> {
+                    if (changed.equals(resolveMappingsDirectory(mockInstance.mappingSet))) {
+                        try {
+                            reload(instance);
+                            System.out.printf("Reloaded mappings of mock server '%s'%n", instance);
+                        } catch (RuntimeException e) {
+                            System.err.printf("Reloading mock server '%s' failed: %s%n", instance, e);
+                        }
+                    }
+                });
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watcher stopped together with the servers
+        }
+    }
+
+    private static Path resolveMappingsDirectory(String mappingSet) {
+        if (MOCK_ROOT != null) {
+            return Path.of(MOCK_ROOT, mappingSet, "mappings").toAbsolutePath();
+        }
+        URL url = MockUtils.class.getClassLoader().getResource(CLASSPATH_ROOT + "/" + mappingSet + "/mappings");
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            Path path = Path.of(url.toURI());
+            return Files.isDirectory(path) ? path.toAbsolutePath() : null;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private record MockInstance(String mappingSet, WireMockServer server, StubStatsListener listener,
+                                ProfileTransformer transformer) {
+    }
+
+    public static class StubStats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final LongAccumulator maxMillis = new LongAccumulator(Math::max, 0);
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public double getAverageMillis() {
+            return (double) totalMillis.sum() / Math.max(1, hits.sum());
+        }
+
+        public long getMaxMillis() {
+            return maxMillis.get();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, avg=%.1fms, max=%dms", getHits(), getAverageMillis(), getMaxMillis());
+        }
+    }
+
+    // Counts what every stub served, keyed by its name or request line; the journal can stay disabled
+    private static class StubStatsListener implements ServeEventListener {
+        private final Map<String, StubStats> stats = new ConcurrentHashMap<>();
+        private final Map<UUID, String> keys = new ConcurrentHashMap<>();
+
+        @Override
+        public void afterComplete(ServeEvent serveEvent, Parameters parameters) {
+            StubMapping stub = serveEvent.getStubMapping();
+            String key = serveEvent.getWasMatched() ? keys.computeIfAbsent(stub.getId(), id -> describe(stub)) : UNMATCHED;
+            StubStats stubStats = stats.computeIfAbsent(key, ignored -> new StubStats());
+            stubStats.hits.increment();
+            Timing timing = serveEvent.getTiming();
+            if (timing != null && timing.getTotalTime() != null) {
+                stubStats.totalMillis.add(timing.getTotalTime());
+                stubStats.maxMillis.accumulate(timing.getTotalTime());
+            }
+        }
+
+        @Override
+        public String getName() {
+            return "stub-stats";
+        }
+
+        private static String describe(StubMapping stub) {
+            if (stub.getName() != null) {
+                return stub.getName();
+            }
+            RequestPattern request = stub.getRequest();
+            String url = request.getUrl() != null ? request.getUrl()
+                    : request.getUrlPath() != null ? request.getUrlPath()
+                    : request.getUrlPattern() != null ? request.getUrlPattern()
+                    : request.getUrlPathPattern() != null ? request.getUrlPathPattern() : "*";
+            return request.getMethod() + " " + url;
+        }
+    }
+
+    private static class ProfileTransformer implements ResponseDefinitionTransformerV2 {
+        private volatile MockProfile profile = DEFAULT_PROFILE;
+
+        @Override
+        public ResponseDefinition transform(ServeEvent serveEvent) {
+            ResponseDefinition response = serveEvent.getResponseDefinition();
+            // Unmatched requests keep WireMock's 404 so mapping mistakes stay visible
+            return serveEvent.getWasMatched() ? profile.apply(response) : response;
+        }
+
+        @Override
+        public String getName() {
+            return "mock-profile";
+        }
     }
 }
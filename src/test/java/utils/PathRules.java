@@ -0,0 +1,151 @@
+package utils;
+
+import org.hamcrest.Matcher;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Ignore paths, tolerances and field matchers of a JsonStreamComparator compiled into one trie of path segments.
+// Built once and only read afterwards; a comparison walks it one segment at a time, alongside the documents.
+class PathRules {
+    static final List<Node> NONE = List.of();
+
+    private final Node root = new Node();
+
+    // Same syntax as JsonUnit: dot separated fields, [n] for an index and [*] for any index, optionally after "$."
+    static List<Object> parse(String path) {
+        String remaining = path.startsWith("$.") ? path.substring(2) : path;
+        List<Object> segments = new ArrayList<>();
+        for (String part : remaining.split("\\.")) {
+            int bracket = part.indexOf('[');
+            String name = bracket < 0 ? part : part.substring(0, bracket);
+            if (!name.isEmpty()) {
+                segments.add(name);
+            }
+            while (bracket >= 0) {
+                int close = part.indexOf(']', bracket);
+                if (close < 0) {
+                    throw new IllegalArgumentException(String.format("Unclosed index in path %s", path));
+                }
+                String index = part.substring(bracket + 1, close);
+                segments.add("*".equals(index) ? Node.ANY_INDEX : Integer.valueOf(index));
+                bracket = part.indexOf('[', close);
+            }
+        }
+        return segments;
+    }
+
+    void ignore(String path) {
+        node(path).ignored = true;
+    }
+
+    void tolerance(String path, BigDecimal tolerance) {
+        node(path).tolerance = tolerance;
+    }
+
+    void matcher(String path, Matcher<?> matcher) {
+        List<Object> segments = parse(path);
+        Node parent = node(segments.subList(0, segments.size() - 1));
+        Object last = segments.get(segments.size() - 1);
+        if (last instanceof String field && !parent.matchedFields.contains(field)) {
+            parent.matchedFields.add(field);
+        }
+        node(segments).matcher = matcher;
+    }
+
+    List<Node> root() {
+        return List.of(root);
+    }
+
+    // The nodes reached from the given ones by a field name or an index
+    static List<Node> next(List<Node> current, Object segment) {
+        if (current.isEmpty()) {
+            return NONE;
+        }
+        List<Node> next = null;
+        for (Node node : current) {
+            Node exact = node.children.get(segment);
+            Node any = segment instanceof Integer ? node.children.get(Node.ANY_INDEX) : null;
+            if (exact != null || any != null) {
+                if (next == null) {
+                    next = new ArrayList<>(2);
+                }
+                if (exact != null) {
+                    next.add(exact);
+                }
+                if (any != null) {
+                    next.add(any);
+                }
+            }
+        }
+        return next == null ? NONE : next;
+    }
+
+    private Node node(String path) {
+        return node(parse(path));
+    }
+
+    private Node node(List<Object> segments) {
+        Node node = root;
+        for (Object segment : segments) {
+            node = node.children.computeIfAbsent(segment, key -> new Node());
+        }
+        return node;
+    }
+
+    static class Node {
+        static final Object ANY_INDEX = new Object();
+
+        private final Map<Object, Node> children = new HashMap<>();
+        // Fields of this object that have a matcher, so one the actual object lacks can still be checked
+        private final List<String> matchedFields = new ArrayList<>(0);
+        private boolean ignored;
+        private BigDecimal tolerance;
+        private Matcher<?> matcher;
+
+        static boolean ignored(List<Node> nodes) {
+            for (Node node : nodes) {
+                if (node.ignored) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        static BigDecimal tolerance(List<Node> nodes) {
+            for (Node node : nodes) {
+                if (node.tolerance != null) {
+                    return node.tolerance;
+                }
+            }
+            return null;
+        }
+
+        static List<String> matchedFields(List<Node> nodes) {
+            List<String> fields = List.of();
+            for (Node node : nodes) {
+                if (!node.matchedFields.isEmpty()) {
+                    if (fields.isEmpty()) {
+                        fields = node.matchedFields;
+                    } else {
+                        fields = new ArrayList<>(fields);
+                        fields.addAll(node.matchedFields);
+                    }
+                }
+            }
+            return fields;
+        }
+
+        static Matcher<?> matcher(List<Node> nodes) {
+            for (Node node : nodes) {
+                if (node.matcher != null) {
+                    return node.matcher;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.emptyOrNullString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PathRulesTest {
+
+    @Test
+    void verifyParseFieldsAndIndexes() {
+        assertThat(PathRules.parse("id"), contains("id"));
+        assertThat(PathRules.parse("address.city"), contains("address", "city"));
+        assertThat(PathRules.parse("addresses[1].id"), contains("addresses", 1, "id"));
+        assertThat(PathRules.parse("matrix[0][2]"), contains("matrix", 0, 2));
+        assertThat(PathRules.parse("[3].id"), contains(3, "id"));
+    }
+
+    @Test
+    void verifyParseAnyIndexAndRootPrefix() {
+        List<Object> segments = PathRules.parse("$.addresses[*].id");
+
+        assertThat(segments, hasSize(3));
+        assertThat(segments.get(0), equalTo("addresses"));
+        assertThat(segments.get(1), sameInstance(PathRules.Node.ANY_INDEX));
+        assertThat(segments.get(2), equalTo("id"));
+    }
+
+    @Test
+    void verifyParseRejectsUnclosedIndex() {
+        assertThrows(IllegalArgumentException.class, () -> PathRules.parse("addresses[1.id"));
+    }
+
+    @Test
+    void verifyAnyIndexAndExactIndexAreBothReached() {
+        PathRules rules = new PathRules();
+        rules.ignore("addresses[*].id");
+        rules.tolerance("addresses[0].lat", new BigDecimal("0.5"));
+
+        List<PathRules.Node> addresses = PathRules.next(rules.root(), "addresses");
+        List<PathRules.Node> first = PathRules.next(addresses, 0);
+        List<PathRules.Node> second = PathRules.next(addresses, 1);
+
+        assertThat(first, hasSize(2));
+        assertThat(second, hasSize(1));
+        assertThat(PathRules.Node.ignored(PathRules.next(first, "id")), equalTo(true));
+        assertThat(PathRules.Node.ignored(PathRules.next(second, "id")), equalTo(true));
+        assertThat(PathRules.Node.tolerance(PathRules.next(first, "lat")), equalTo(new BigDecimal("0.5")));
+        assertThat(PathRules.Node.tolerance(PathRules.next(second, "lat")), nullValue());
+    }
+
+    @Test
+    void verifyAnyIndexDoesNotMatchFieldNames() {
+        PathRules rules = new PathRules();
+        rules.ignore("items[*]");
+
+        List<PathRules.Node> items = PathRules.next(rules.root(), "items");
+
+        assertThat(PathRules.Node.ignored(PathRules.next(items, 0)), equalTo(true));
+        assertThat(PathRules.next(items, "0"), empty());
+    }
+
+    @Test
+    void verifyUnknownPathsReachNothing() {
+        PathRules rules = new PathRules();
+        rules.matcher("addresses[*].id", not(emptyOrNullString()));
+
+        assertThat(PathRules.next(rules.root(), "name"), sameInstance(PathRules.NONE));
+        assertThat(PathRules.next(PathRules.NONE, "addresses"), sameInstance(PathRules.NONE));
+    }
+
+    @Test
+    void verifyMatchedFieldsAreListedOnTheirObject() {
+        PathRules rules = new PathRules();
+        rules.matcher("id", not(emptyOrNullString()));
+        rules.matcher("addresses[*].id", not(emptyOrNullString()));
+        rules.matcher("addresses[*].customerId", not(emptyOrNullString()));
+        rules.matcher("tags[0]", not(emptyOrNullString()));
+
+        List<PathRules.Node> address = PathRules.next(PathRules.next(rules.root(), "addresses"), 4);
+
+        assertThat(PathRules.Node.matchedFields(rules.root()), contains("id"));
+        assertThat(PathRules.Node.matchedFields(address), contains("id", "customerId"));
+        assertThat(PathRules.Node.matchedFields(PathRules.next(rules.root(), "tags")), empty());
+    }
+}
@@ -0,0 +1,268 @@
+package utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+
+// Keeps the latency histograms and throughput of the last runs under build/perf-baseline, one JSON file per run,
+// and compares the newest run against the ones before it. `gradle perfReport` runs main after `gradle test`.
+public class PerformanceBaseline {
+    public static final Path BASELINE_DIR = Path.of(System.getProperty("perf.baselineDir", "build/perf-baseline"));
+    public static final int KEEP_RUNS = Integer.getInteger("perf.keepRuns", 20);
+    public static final int BASELINE_RUNS = Integer.getInteger("perf.baselineRuns", 5);
+    // Relative slowdown of the median (or drop in throughput) that counts as a regression
+    public static final double THRESHOLD = Double.parseDouble(System.getProperty("perf.threshold", "0.10"));
+    // Throughput of a functional run is noisy, so it gets its own, looser threshold
+    public static final double THROUGHPUT_THRESHOLD = Double.parseDouble(System.getProperty("perf.throughputThreshold", "0.25"));
+    public static final double ALPHA = Double.parseDouble(System.getProperty("perf.alpha", "0.01"));
+    public static final int MIN_SAMPLES = Integer.getInteger("perf.minSamples", 10);
+
+    private static final String ENDPOINT_PREFIX = "endpoint:";
+    private static final String TEST_PREFIX = "test:";
+    private static final Map<String, Metric> TEST_METRICS = new ConcurrentHashMap<>();
+    private static final AtomicBoolean RUN_STARTED = new AtomicBoolean();
+    private static volatile long runStartedNanos;
+    private static volatile long runStartedAt;
+
+    private PerformanceBaseline() {
+    }
+
+    static void startRun() {
+        if (RUN_STARTED.compareAndSet(false, true)) {
+            runStartedNanos = System.nanoTime();
+            runStartedAt = System.currentTimeMillis();
+            RunLifecycleExtension.onRunEnd(PerformanceBaseline::saveRun);
+        }
+    }
+
+    // Called once per test class with what LatencySlo collected for it
+    static void recordTest(String testClass, Map<String, Histogram> endpoints, long durationNanos) {
+        endpoints.forEach((endpoint, histogram) -> TEST_METRICS.put(TEST_PREFIX + testClass + "/" + endpoint,
+                Metric.of(histogram, durationNanos)));
+    }
+
+    public static void saveRun() {
+        long durationNanos = System.nanoTime() - runStartedNanos;
+        Map<String, Metric> metrics = new TreeMap<>(TEST_METRICS);
+        EndpointTimings.snapshot().forEach((endpoint, histograms) -> metrics.put(ENDPOINT_PREFIX + endpoint,
+                Metric.of(histograms.get(EndpointTimings.Phase.TOTAL), durationNanos)));
+        if (metrics.isEmpty()) {
+            return;
+        }
+        RunRecord run = new RunRecord(String.valueOf(runStartedAt), runStartedAt, System.currentTimeMillis(), metrics);
+        try {
+            Files.createDirectories(BASELINE_DIR);
+            JsonUtils.writer().writeValue(BASELINE_DIR.resolve("run-" + run.getRunId() + ".json").toFile(), run);
+            List<Path> runs = listRuns();
+            for (Path old : runs.subList(0, Math.max(0, runs.size() - KEEP_RUNS))) {
+                Files.deleteIfExists(old);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static List<Finding> compareLatestRun() {
+        List<Path> runs = listRuns();
+        if (runs.size() < 2) {
+            return List.of();
+        }
+        RunRecord candidate = readRun(runs.get(runs.size() - 1));
+        Map<String, List<Metric>> baseline = new HashMap<>();
+        for (Path path : runs.subList(Math.max(0, runs.size() - 1 - BASELINE_RUNS), runs.size() - 1)) {
+            readRun(path).getMetrics().forEach((key, metric) -> baseline.computeIfAbsent(key, k -> new ArrayList<>())
+                    .add(metric));
+        }
+
+        List<Finding> findings = new ArrayList<>();
+        candidate.getMetrics().forEach((key, metric) -> {
+            List<Metric> previous = baseline.get(key);
+            if (previous == null) {
+                findings.add(new Finding(key, Verdict.NEW, metric.getP50Ms(), 0, Double.NaN, "no baseline yet"));
+                return;
+            }
+            findings.add(compare(key, metric, previous));
+        });
+        findings.sort((left, right) -> left.getKey().compareTo(right.getKey()));
+        return findings;
+    }
+
+    private static Finding compare(String key, Metric candidate, List<Metric> previous) {
+        Histogram candidateHistogram = candidate.histogram();
+        Histogram baselineHistogram = previous.get(0).histogram();
+        double baselineThroughput = 0;
+        double baselineCount = 0;
+        for (int i = 0; i < previous.size(); i++) {
+            if (i > 0) {
+                baselineHistogram.add(previous.get(i).histogram());
+            }
+            baselineThroughput += previous.get(i).getThroughput() / previous.size();
+            baselineCount += (double) previous.get(i).getCount() / previous.size();
+        }
+        double candidateMedian = candidateHistogram.getValueAtPercentile(50) / 1000.0;
+        double baselineMedian = baselineHistogram.getValueAtPercentile(50) / 1000.0;
+        if (candidateHistogram.getTotalCount() < MIN_SAMPLES || baselineHistogram.getTotalCount() < MIN_SAMPLES) {
+            return new Finding(key, Verdict.TOO_FEW_SAMPLES, candidateMedian, baselineMedian, Double.NaN,
+                    String.format("%d vs %d samples", candidateHistogram.getTotalCount(), baselineHistogram.getTotalCount()));
+        }
+
+        MannWhitney.Result test = MannWhitney.candidateSlower(candidateHistogram, baselineHistogram);
+        double slowdown = baselineMedian > 0 ? candidateMedian / baselineMedian - 1 : 0;
+        double throughputDrop = baselineThroughput > 0 ? 1 - candidate.getThroughput() / baselineThroughput : 0;
+        // Significant alone is not enough with thousands of samples; the shift also has to matter
+        if (test.getPValue() < ALPHA && slowdown > THRESHOLD) {
+            return new Finding(key, Verdict.REGRESSION, candidateMedian, baselineMedian, test.getPValue(),
+                    String.format("median %+.1f%%, P(slower)=%.2f", slowdown * 100, test.getEffectSize()));
+        }
+        // Only comparable when the run made about as many calls, i.e. the same tests were selected
+        boolean sameWorkload = Math.abs(candidate.getCount() - baselineCount) <= baselineCount * 0.1;
+        if (key.startsWith(ENDPOINT_PREFIX) && sameWorkload && throughputDrop > THROUGHPUT_THRESHOLD) {
+            return new Finding(key, Verdict.REGRESSION, candidateMedian, baselineMedian, test.getPValue(),
+                    String.format("throughput %.1f/s vs %.1f/s", candidate.getThroughput(), baselineThroughput));
+        }
+        return new Finding(key, Verdict.OK, candidateMedian, baselineMedian, test.getPValue(),
+                String.format("median %+.1f%%", slowdown * 100));
+    }
+
+    public static String describe(List<Finding> findings) {
+        StringBuilder builder = new StringBuilder(String.format(
+                "Performance vs baseline (last %d runs, latency threshold %.0f%%, throughput threshold %.0f%%, alpha %s)%n",
+                BASELINE_RUNS, THRESHOLD * 100, THROUGHPUT_THRESHOLD * 100, ALPHA));
+        builder.append(String.format("%-16s %-60s %12s %12s %10s  %s%n", "verdict", "metric", "p50 ms", "base p50 ms",
+                "p-value", "detail"));
+        for (Finding finding : findings) {
+            builder.append(String.format("%-16s %-60s %12.3f %12.3f %10.4f  %s%n", finding.getVerdict(), finding.getKey(),
+                    finding.getMedianMs(), finding.getBaselineMedianMs(), finding.getPValue(), finding.getDetail()));
+        }
+        return builder.toString();
+    }
+
+    // gradle perfReport [-Dperf.threshold=0.2] [-Dperf.failOnRegression=true]
+    public static void main(String[] args) throws IOException {
+        List<Finding> findings = compareLatestRun();
+        if (findings.isEmpty()) {
+            System.out.printf("Need at least two runs in %s to compare%n", BASELINE_DIR.toAbsolutePath());
+            return;
+        }
+        String report = describe(findings);
+        System.out.print(report);
+        Path reportFile = EndpointTimings.REPORT_DIR.resolve("baseline-comparison.txt");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, report);
+        JsonUtils.prettyWriter().writeValue(
+                EndpointTimings.REPORT_DIR.resolve("baseline-comparison.json").toFile(), findings);
+
+        long regressions = findings.stream().filter(finding -> finding.getVerdict() == Verdict.REGRESSION).count();
+        if (regressions > 0 && Boolean.getBoolean("perf.failOnRegression")) {
+            throw new IllegalStateException(String.format("%d performance regression(s), see %s", regressions, reportFile));
+        }
+    }
+
+    private static List<Path> listRuns() {
+        if (!Files.isDirectory(BASELINE_DIR)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(BASELINE_DIR)) {
+            // Run ids are start timestamps, so name order is run order
+            return files.filter(path -> path.getFileName().toString().matches("run-\\d+\\.json")).sorted(
+                    (left, right) -> Long.compare(runId(left), runId(right))).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long runId(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring("run-".length(), name.length() - ".json".length()));
+    }
+
+    private static RunRecord readRun(Path path) {
+        try {
+            return JsonUtils.reader(RunRecord.class).readValue(path.toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public enum Verdict {
+        REGRESSION, OK, NEW, TOO_FEW_SAMPLES
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Finding {
+        private final String key;
+        private final Verdict verdict;
+        private final double medianMs;
+        private final double baselineMedianMs;
+        private final double pValue;
+        private final String detail;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RunRecord {
+        private String runId;
+        private long startedAt;
+        private long endedAt;
+        private Map<String, Metric> metrics;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Metric {
+        private long count;
+        private double throughput;
+        private double p50Ms;
+        private double p95Ms;
+        private double p99Ms;
+        // Compressed HdrHistogram in microseconds, base64
+        private String histogram;
+
+        static Metric of(Histogram histogram, long durationNanos) {
+            ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+            int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+            double seconds = Math.max(1, durationNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+            return new Metric(histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                    histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(95) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+        }
+
+        Histogram histogram() {
+            try {
+                Histogram decoded = Histogram.decodeFromCompressedByteBuffer(
+                        ByteBuffer.wrap(Base64.getDecoder().decode(histogram)), 0);
+                // Runs are merged into one baseline, and their value ranges differ
+                decoded.setAutoResize(true);
+                return decoded;
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Stored histogram is corrupt", e);
+            }
+        }
+    }
+}
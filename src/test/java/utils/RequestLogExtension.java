@@ -0,0 +1,54 @@
+package utils;
+
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.LifecycleMethodExecutionExceptionHandler;
+import org.junit.jupiter.api.extension.TestWatcher;
+
+import java.util.Optional;
+
+public class RequestLogExtension implements BeforeEachCallback, TestWatcher, LifecycleMethodExecutionExceptionHandler {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        RequestLogFilter.clear();
+    }
+
+    @Override
+    public void testSuccessful(ExtensionContext context) {
+        RequestLogFilter.clear();
+    }
+
+    @Override
+    public void testAborted(ExtensionContext context, Throwable cause) {
+        RequestLogFilter.clear();
+    }
+
+    @Override
+    public void testDisabled(ExtensionContext context, Optional<String> reason) {
+        RequestLogFilter.clear();
+    }
+
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        RequestLogFilter.flush(context.getDisplayName(), System.out);
+    }
+
+    @Override
+    public void handleBeforeAllMethodExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+        RequestLogFilter.flush(context.getDisplayName(), System.out);
+        throw throwable;
+    }
+
+    @Override
+    public void handleBeforeEachMethodExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+        RequestLogFilter.flush(context.getDisplayName(), System.out);
+        throw throwable;
+    }
+
+    @Override
+    public void handleAfterAllMethodExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+        RequestLogFilter.flush(context.getDisplayName(), System.out);
+        throw throwable;
+    }
+}
@@ -0,0 +1,135 @@
+package utils;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import lombok.AllArgsConstructor;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Keeps the last few exchanges of the current test thread in memory; RequestLogExtension prints them
+// only when the test fails
+public class RequestLogFilter implements OrderedFilter {
+    public static final int BUFFER_CAPACITY = Integer.getInteger("log.buffer.capacity", 16);
+    public static final int MAX_BODY_CHARS = Integer.getInteger("log.body.maxChars", 4_096);
+    // Wraps TimingFilter and runs after every filter of default order, so headers those add are captured
+    // while the time spent capping bodies stays out of the timings
+    public static final int ORDER = TimingFilter.ORDER - 1;
+
+    private static final ThreadLocal<Deque<Exchange>> BUFFER = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+        // Keep only what the log prints, already capped, so a buffered exchange never pins a whole response;
+        // formatting is still deferred until a test actually fails
+        Object requestBody = requestSpec.getBody();
+        Deque<Exchange> buffer = BUFFER.get();
+        if (buffer.size() == BUFFER_CAPACITY) {
+            buffer.removeFirst();
+        }
+        buffer.addLast(new Exchange(requestSpec.getMethod(), requestSpec.getURI(), requestSpec.getHeaders(),
+                cap(requestBody), response.getStatusLine(), response.getHeaders(),
+                cap(response.asByteArray())));
+        return response;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    public static void clear() {
+        BUFFER.get().clear();
+    }
+
+    // Hands the exchanges recorded on this thread to another one, see ConcurrentRows
+    static List<Exchange> drain() {
+        Deque<Exchange> buffer = BUFFER.get();
+        List<Exchange> exchanges = new ArrayList<>(buffer);
+        buffer.clear();
+        return exchanges;
+    }
+
+    static void replay(List<Exchange> exchanges) {
+        Deque<Exchange> buffer = BUFFER.get();
+        for (Exchange exchange : exchanges) {
+            if (buffer.size() == BUFFER_CAPACITY) {
+                buffer.removeFirst();
+            }
+            buffer.addLast(exchange);
+        }
+    }
+
+    public static void flush(String title, PrintStream out) {
+        Deque<Exchange> buffer = BUFFER.get();
+        if (buffer.isEmpty()) {
+            return;
+        }
+        StringBuilder builder = new StringBuilder(String.format("===== HTTP log for %s (last %d calls) =====%n",
+                title, buffer.size()));
+        for (Exchange exchange : buffer) {
+            exchange.appendTo(builder);
+        }
+        out.print(builder);
+        buffer.clear();
+    }
+
+    private static String cap(Object body) {
+        if (body == null) {
+            return "<none>";
+        }
+        if (body instanceof byte[] bytes) {
+            return cap(bytes);
+        }
+        String text = body.toString();
+        if (text.length() <= MAX_BODY_CHARS) {
+            return text;
+        }
+        return text.substring(0, MAX_BODY_CHARS) + String.format("... <%d more chars>", text.length() - MAX_BODY_CHARS);
+    }
+
+    // Decodes no more than MAX_BODY_CHARS can take up in UTF-8, whatever the size of the body
+    private static String cap(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return "<none>";
+        }
+        int decoded = (int) Math.min(bytes.length, MAX_BODY_CHARS * 4L);
+        String text = new String(bytes, 0, decoded, StandardCharsets.UTF_8);
+        if (decoded == bytes.length && text.length() <= MAX_BODY_CHARS) {
+            return text;
+        }
+        String kept = text.substring(0, Math.min(text.length(), MAX_BODY_CHARS));
+        return kept + String.format("... <%d more bytes>",
+                bytes.length - kept.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @AllArgsConstructor
+    static class Exchange {
+        private final String method;
+        private final String uri;
+        private final Headers requestHeaders;
+        private final String requestBody;
+        private final String statusLine;
+        private final Headers responseHeaders;
+        private final String responseBody;
+
+        void appendTo(StringBuilder builder) {
+            builder.append(String.format("Request: %s %s%n", method, uri))
+                    .append(String.format("Headers: %s%n", requestHeaders.asList()))
+                    .append(String.format("Body: %s%n", requestBody))
+                    .append(String.format("Response: %s%n", statusLine))
+                    .append(String.format("Headers: %s%n", responseHeaders.asList()))
+                    .append(String.format("Body: %s%n%n", responseBody));
+        }
+    }
+}
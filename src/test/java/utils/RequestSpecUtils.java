@@ -0,0 +1,23 @@
+package utils;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
+
+import static utils.ConstantUtils.HOST;
+import static utils.ConstantUtils.PORT;
+
+public class RequestSpecUtils {
+    // Built once and merged into every request so suites never touch the RestAssured.baseURI/port statics
+    private static final RequestSpecification API_SPEC = new RequestSpecBuilder()
+            .setBaseUri(HOST)
+            .setPort(PORT)
+            .setConfig(HttpClientUtils.restAssuredConfig())
+            .addFilter(new RequestLogFilter())
+            .addFilter(new TimingFilter())
+            .build();
+
+    public static RequestSpecification apiRequest() {
+        return RestAssured.given().spec(API_SPEC);
+    }
+}
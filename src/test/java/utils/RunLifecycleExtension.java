@@ -0,0 +1,35 @@
+package utils;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+// Runs registered tasks once, after the last test class of the whole run has finished
+public class RunLifecycleExtension implements BeforeAllCallback {
+    private static final Deque<Runnable> END_OF_RUN_TASKS = new ConcurrentLinkedDeque<>();
+
+    public static void onRunEnd(Runnable task) {
+        END_OF_RUN_TASKS.push(task);
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL).getOrComputeIfAbsent(
+                RunLifecycleExtension.class, key -> (ExtensionContext.Store.CloseableResource) RunLifecycleExtension::runTasks,
+                ExtensionContext.Store.CloseableResource.class);
+    }
+
+    private static void runTasks() {
+        Runnable task;
+        // Last registered runs first, so later components can still use the ones they were built on
+        while ((task = END_OF_RUN_TASKS.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.printf("End of run task failed: %s%n", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ThreadUtils {
+
+    private ThreadUtils() {
+    }
+
+    // One thread per task for blocking HTTP calls: virtual threads where the runtime has them (Java 21+), otherwise
+    // a cached pool of daemon platform threads. Neither bounds concurrency, callers do that with a Semaphore.
+    public static ExecutorService newPerTaskExecutor(String threadName) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package utils;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+// Times every call per endpoint template. HttpClientUtils reports the DNS, connect and first-byte moments of
+// the exchange running on the current thread; DNS and connect only happen when the pool opens a new connection.
+public class TimingFilter implements OrderedFilter {
+    // Innermost of the filters, right before RestAssured sends the request, so the time excludes every other
+    // filter, RequestLogFilter included
+    public static final int ORDER = LOWEST_PRECEDENCE;
+
+    private static final ThreadLocal<Phases> CURRENT = ThreadLocal.withInitial(Phases::new);
+    private static final Map<String, String> ENDPOINT_NAMES = endpointNames();
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Phases phases = CURRENT.get();
+        phases.reset();
+        phases.startNanos = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        long totalNanos = System.nanoTime() - phases.startNanos;
+        long firstByteNanos = phases.headersNanos > 0 ? phases.headersNanos - phases.startNanos : totalNanos;
+        String endpoint = endpointName(requestSpec.getMethod(), requestSpec.getUserDefinedPath());
+        EndpointTimings.record(endpoint, phases.dnsNanos, phases.connectNanos, firstByteNanos, totalNanos);
+        LatencySlo.record(endpoint, totalNanos);
+        return response;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    static void recordDns(long nanos) {
+        Phases phases = CURRENT.get();
+        phases.dnsNanos = Math.max(0, phases.dnsNanos) + nanos;
+    }
+
+    static void recordConnect(long nanos) {
+        Phases phases = CURRENT.get();
+        phases.connectNanos = Math.max(0, phases.connectNanos) + nanos;
+    }
+
+    static void markHeadersReceived() {
+        Phases phases = CURRENT.get();
+        if (phases.startNanos > 0) {
+            phases.headersNanos = System.nanoTime();
+        }
+    }
+
+    // GET /api/user/{userId} -> GET_USER_API. The constant prefix tells GET_USER_API and DELETE_USER_API apart.
+    public static String endpointName(String method, String template) {
+        if (template == null || template.isEmpty()) {
+            template = "/";
+        }
+        String name = ENDPOINT_NAMES.get(method + " " + template);
+        if (name == null) {
+            name = ENDPOINT_NAMES.get("* " + template);
+        }
+        return name != null ? name : method + " " + template;
+    }
+
+    private static Map<String, String> endpointNames() {
+        Map<String, String> names = new HashMap<>();
+        for (Field field : ConstantUtils.class.getFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) || !field.getName().endsWith("_API")
+                    || field.getType() != String.class) {
+                continue;
+            }
+            try {
+                names.put(methodOf(field.getName()) + " " + field.get(null), field.getName());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return names;
+    }
+
+    private static String methodOf(String constant) {
+        if (constant.startsWith("GET_")) {
+            return "GET";
+        }
+        if (constant.startsWith("DELETE_")) {
+            return "DELETE";
+        }
+        if (constant.startsWith("UPDATE_")) {
+            return "PUT";
+        }
+        if (constant.startsWith("CREATE_") || constant.equals("LOGIN_API")) {
+            return "POST";
+        }
+        return "*";
+    }
+
+    private static class Phases {
+        private long startNanos;
+        private long dnsNanos;
+        private long connectNanos;
+        private long headersNanos;
+
+        void reset() {
+            startNanos = 0;
+            dnsNanos = -1;
+            connectNanos = -1;
+            headersNanos = 0;
+        }
+    }
+}
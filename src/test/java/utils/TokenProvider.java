@@ -0,0 +1,159 @@
+package utils;
+
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import model.dto.login.LoginRequest;
+import model.dto.login.LoginResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static utils.ConstantUtils.*;
+
+public class TokenProvider {
+    public static final LoginRequest DEFAULT_CREDENTIALS = new LoginRequest("staff", "1234567890");
+    // LoginResponse.timeout is reported in milliseconds (120000 for the staff account)
+    private static final ChronoUnit TIMEOUT_UNIT = ChronoUnit.MILLIS;
+    private static final int RENEW_AT_PERCENT = 80;
+    private static final int EXPIRE_AT_PERCENT = 95;
+
+    // Keyed by a copy of the whole credentials, so a different password never gets another login's token
+    private static final Map<Credentials, CachedToken> TOKENS = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService RENEWER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "token-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private TokenProvider() {
+    }
+
+    public static String getToken() {
+        return getToken(DEFAULT_CREDENTIALS);
+    }
+
+    public static String getToken(LoginRequest credentials) {
+        return getToken(Credentials.of(credentials));
+    }
+
+    public static void invalidate(LoginRequest credentials) {
+        CachedToken cachedToken = TOKENS.remove(Credentials.of(credentials));
+        if (cachedToken != null) {
+            cachedToken.close();
+        }
+    }
+
+    public static void invalidateAll() {
+        TOKENS.values().forEach(CachedToken::close);
+        TOKENS.clear();
+    }
+
+    private static String getToken(Credentials credentials) {
+        return TOKENS.computeIfAbsent(credentials, CachedToken::new).get();
+    }
+
+    private static LoginResponse login(LoginRequest credentials) {
+        Response response = RestAssured.given()
+                .baseUri(HOST)
+                .port(PORT)
+                .config(HttpClientUtils.restAssuredConfig())
+                .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
+                .body(credentials)
+                .post(LOGIN_API);
+        response.then().statusCode(200);
+        return JsonUtils.read(response, LoginResponse.class);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class IssuedToken {
+        private final String value;
+        private final Instant expiresAt;
+
+        boolean isValid() {
+            return Instant.now().isBefore(expiresAt);
+        }
+    }
+
+    private record Credentials(String username, String password) {
+        static Credentials of(LoginRequest request) {
+            return new Credentials(request.getUsername(), request.getPassword());
+        }
+    }
+
+    private static class CachedToken {
+        private final Credentials credentials;
+        private volatile IssuedToken current;
+        private ScheduledFuture<?> renewal;
+        // Set once the token is removed from TOKENS; guarded by this, volatile for the lock-free read in get()
+        private volatile boolean closed;
+
+        CachedToken(Credentials credentials) {
+            this.credentials = credentials;
+        }
+
+        String get() {
+            IssuedToken issued = current;
+            if (!closed && issued != null && issued.isValid()) {
+                return issued.getValue();
+            }
+            synchronized (this) {
+                if (!closed) {
+                    // Another thread may have logged in while we were waiting for the lock
+                    if (current == null || !current.isValid()) {
+                        refresh();
+                    }
+                    return current.getValue();
+                }
+            }
+            // Invalidated while this thread still held on to it
+            return getToken(credentials);
+        }
+
+        private synchronized void refresh() {
+            // A pending renewal may fire after close(); a removed token must not log in or reschedule again
+            if (closed) {
+                return;
+            }
+            LoginResponse loginResponse = login(new LoginRequest(credentials.username(), credentials.password()));
+            Instant now = Instant.now();
+            Duration lifetime = Duration.of(loginResponse.getTimeout(), TIMEOUT_UNIT);
+            current = new IssuedToken(String.format("Bearer %s", loginResponse.getToken()),
+                    now.plus(lifetime.multipliedBy(EXPIRE_AT_PERCENT).dividedBy(100)));
+            scheduleRenewal(lifetime.multipliedBy(RENEW_AT_PERCENT).dividedBy(100));
+        }
+
+        private void scheduleRenewal(Duration delay) {
+            cancelRenewal();
+            renewal = RENEWER.schedule(() -> {
+                try {
+                    refresh();
+                } catch (Throwable e) {
+                    // Keep the current token; get() logs in again once it has expired
+                    System.err.printf("Background token renewal for '%s' failed: %s%n", credentials.username(), e);
+                }
+            }, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        private synchronized void close() {
+            closed = true;
+            cancelRenewal();
+        }
+
+        private synchronized void cancelRenewal() {
+            if (renewal != null) {
+                renewal.cancel(false);
+                renewal = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package utils;
+
+import io.restassured.response.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static utils.ConstantUtils.*;
+
+// Collects users created by a test class and removes them in @AfterAll
+public class UserCleanupRegistry {
+    public static final int CLEANUP_PARALLELISM = Integer.getInteger("cleanup.parallelism", 8);
+    // Beyond this many users one batched SQL delete beats N API round trips
+    public static final int SQL_CLEANUP_THRESHOLD = Integer.getInteger("cleanup.sqlThreshold", 200);
+
+    private final Queue<String> ids = new ConcurrentLinkedQueue<>();
+
+    public void register(String userId) {
+        ids.add(userId);
+    }
+
+    public List<String> cleanUp() {
+        List<String> pending = new ArrayList<>();
+        String id;
+        while ((id = ids.poll()) != null) {
+            pending.add(id);
+        }
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> failedIds = pending.size() >= SQL_CLEANUP_THRESHOLD
+                ? DbUtils.deleteUsersFromDb(pending)
+                : deleteThroughApi(pending);
+        if (!failedIds.isEmpty() && pending.size() < SQL_CLEANUP_THRESHOLD) {
+            failedIds = DbUtils.deleteUsersFromDb(failedIds);
+        }
+        if (!failedIds.isEmpty()) {
+            System.err.printf("Cleanup left %d of %d users behind: %s%n", failedIds.size(), pending.size(), failedIds);
+        }
+        return failedIds;
+    }
+
+    private static List<String> deleteThroughApi(List<String> userIds) {
+        String token = TokenProvider.getToken();
+        // The deletions count towards the latency budgets of the class cleaning up, see LatencyBudget
+        LatencySlo.Scope scope = LatencySlo.current();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(CLEANUP_PARALLELISM, userIds.size()));
+        try {
+            List<CompletableFuture<String>> deletions = userIds.stream()
+                    .map(userId -> CompletableFuture.supplyAsync(() -> {
+                        LatencySlo.enter(scope);
+                        try {
+                            return deleteThroughApi(userId, token);
+                        } finally {
+                            LatencySlo.exit();
+                        }
+                    }, executor))
+                    .toList();
+            List<String> failedIds = new ArrayList<>();
+            for (CompletableFuture<String> deletion : deletions) {
+                String failedId = deletion.join();
+                if (failedId != null) {
+                    failedIds.add(failedId);
+                }
+            }
+            return failedIds;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // Returns the id when it could not be deleted, null otherwise
+    private static String deleteThroughApi(String userId, String token) {
+        try {
+            Response response = RequestSpecUtils.apiRequest()
+                    .header(CONTENT_TYPE_HEADER, REQUEST_CONTENT_TYPE_HEADER_VALUE)
+                    .header(AUTHORIZATION_HEADER, token)
+                    .delete(DELETE_USER_API, userId);
+            // 404 means the test already removed it
+            return response.statusCode() < 300 || response.statusCode() == 404 ? null : userId;
+        } catch (RuntimeException e) {
+            return userId;
+        }
+    }
+}